@@ -0,0 +1,31 @@
+package com.example.usermanagement.bench;
+
+import com.example.usermanagement.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic user documents for the microbenchmarks, shaped like the demo data
+ */
+public final class BenchUsers {
+
+    private BenchUsers() {
+    }
+
+    public static List<User> create(int count) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User("User " + i, "user" + i + "@example.com", "user" + i,
+                    "$argon2id$v=19$m=16384,t=2,p=1$c2FsdHNhbHRzYWx0c2FsdA$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaGhhc2g",
+                    i % 10 == 0 ? "admin" : "user");
+            user.setId(String.format("%024x", i));
+            user.setCreatedAt(start.plusMinutes(i));
+            user.setUpdatedAt(start.plusMinutes(i));
+            users.add(user);
+        }
+        return users;
+    }
+}
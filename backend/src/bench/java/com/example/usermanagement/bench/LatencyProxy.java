@@ -0,0 +1,82 @@
+package com.example.usermanagement.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * TCP proxy that delays every client-to-server chunk by a fixed amount, to give the
+ * in-process MongoDB stand-in the round-trip latency of a real network hop.
+ *
+ * Runs on daemon platform threads so it never competes with the application for
+ * virtual-thread carriers.
+ */
+public class LatencyProxy implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final String targetHost;
+    private final int targetPort;
+    private final long latencyMillis;
+
+    public LatencyProxy(String targetHost, int targetPort, long latencyMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.latencyMillis = latencyMillis;
+        Thread.ofPlatform().name("latency-proxy-accept").daemon(true).start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket server = new Socket(targetHost, targetPort);
+                client.setTcpNoDelay(true);
+                server.setTcpNoDelay(true);
+                Thread.ofPlatform().daemon(true).start(() -> pump(client, server, latencyMillis));
+                Thread.ofPlatform().daemon(true).start(() -> pump(server, client, 0));
+            } catch (IOException e) {
+                // Socket closed or connection refused; keep accepting until closed
+            }
+        }
+    }
+
+    private static void pump(Socket from, Socket to, long delayMillis) {
+        byte[] buffer = new byte[16 * 1024];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Connection closed
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.usermanagement.bench;
+
+import com.example.usermanagement.UserManagementApplication;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.service.RecentUsersCache;
+import com.example.usermanagement.service.UserStatsCounter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: boots the application against an in-process MongoDB stand-in,
+ * seeds synthetic users, then sends a weighted mix of API calls at a fixed rate and
+ * prints throughput and p50/p99/p999 latency per endpoint.
+ *
+ * - Requests are started on a fixed schedule (open loop), and latency is measured from
+ *   the scheduled start, so a stalled server shows up as latency rather than as fewer requests
+ * - At most --max-in-flight requests are outstanding; a request that would exceed it is
+ *   counted as dropped
+ * - Created users feed the update and delete calls; when none are left those turn into creates
+ *
+ * Run with: mvn -Pbench test-compile exec:java -Dbench.class=LoadTest -Dexec.args="--users=10000 --rate=300"
+ *
+ * Options: --users=10000 --rate=200 --seconds=30 --warmup-seconds=5 --max-in-flight=2000
+ *          --mix=login:5,list:50,recent:25,create:10,update:5,delete:5
+ *          --mongo-latency-ms=1 --mongo-uri=mongodb://... --profiles=virtual-threads --seed=42
+ */
+public class LoadTest {
+
+    private static final String SEED_PASSWORD = "loadtest123";
+    private static final String[] SORT_FIELDS = {"name", "email", "username", "role", "createdAt"};
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    enum Endpoint {
+        LOGIN, LIST, RECENT, CREATE, UPDATE, DELETE
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = ThreadModeThroughputBenchmark.intOption(args, "users", 10_000);
+        int rate = ThreadModeThroughputBenchmark.intOption(args, "rate", 200);
+        int seconds = ThreadModeThroughputBenchmark.intOption(args, "seconds", 30);
+        int warmupSeconds = ThreadModeThroughputBenchmark.intOption(args, "warmup-seconds", 5);
+        int maxInFlight = ThreadModeThroughputBenchmark.intOption(args, "max-in-flight", 2000);
+        int mongoLatencyMillis = ThreadModeThroughputBenchmark.intOption(args, "mongo-latency-ms", 1);
+        String mongoUri = ThreadModeThroughputBenchmark.option(args, "mongo-uri", null);
+        String profiles = ThreadModeThroughputBenchmark.option(args, "profiles", "");
+        long seed = ThreadModeThroughputBenchmark.intOption(args, "seed", 42);
+        Map<Endpoint, Integer> mix = parseMix(ThreadModeThroughputBenchmark.option(args, "mix",
+                "login:5,list:50,recent:25,create:10,update:5,delete:5"));
+
+        MongoServer mongoServer = null;
+        LatencyProxy proxy = null;
+        if (mongoUri == null) {
+            mongoServer = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = mongoServer.bind();
+            proxy = new LatencyProxy(address.getHostString(), address.getPort(), mongoLatencyMillis);
+            mongoUri = "mongodb://localhost:" + proxy.getPort() + "/usermanagement-load";
+        }
+
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--app.query-plan.verify=false",
+                // Every simulated login comes from localhost and most from a handful of seeded users
+                "--app.login-throttle.enabled=false",
+                "--logging.level.root=WARN"));
+        if (!profiles.isEmpty()) {
+            applicationArgs.add("--spring.profiles.active=" + profiles);
+        }
+        ConfigurableApplicationContext context = SpringApplication.run(UserManagementApplication.class,
+                applicationArgs.toArray(new String[0]));
+        try {
+            seedUsers(context, users);
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            Traffic traffic = new Traffic(client, baseUrl, login(client, baseUrl, "sony", "admin123"), users, mix, seed);
+
+            traffic.run(rate, warmupSeconds, maxInFlight);
+            traffic.reset();
+            long started = System.nanoTime();
+            traffic.run(rate, seconds, maxInFlight);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            System.out.println();
+            System.out.printf("%d seeded users, target %d req/s for %ds, mongo latency %s, profiles [%s]%n",
+                    users, rate, seconds, mongoServer != null ? mongoLatencyMillis + "ms" : "n/a", profiles);
+            traffic.print(elapsedSeconds);
+        } finally {
+            context.close();
+            if (proxy != null) {
+                proxy.close();
+            }
+            if (mongoServer != null) {
+                mongoServer.shutdown();
+            }
+        }
+    }
+
+    // Insert directly in batches; one Argon2 hash is shared so seeding large sets stays fast
+    private static void seedUsers(ConfigurableApplicationContext context, int count) {
+        MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+        String encodedPassword = context.getBean(PasswordEncoder.class).encode(SEED_PASSWORD);
+        LocalDateTime start = LocalDateTime.now().minusMinutes(count);
+
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User("Load User " + i, "load" + i + "@example.com", "load" + i, encodedPassword,
+                    i % 20 == 0 ? "admin" : "user");
+            user.setCreatedAt(start.plusMinutes(i));
+            user.setUpdatedAt(start.plusMinutes(i));
+            batch.add(user);
+            if (batch.size() == 1000) {
+                mongoTemplate.insert(batch, User.class);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, User.class);
+        }
+
+        // The seed bypassed UserService, so bring the in-memory views up to date
+        context.getBean(UserStatsCounter.class).reconcile();
+        context.getBean(RecentUsersCache.class).clear();
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody(username, password)))
+                .build();
+        Map<String, Object> body = JSON.readValue(client.send(request, HttpResponse.BodyHandlers.ofString()).body(),
+                new TypeReference<>() { });
+        if (!(body.get("token") instanceof String)) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return (String) body.get("token");
+    }
+
+    private static String loginBody(String username, String password) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Endpoint.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * Request generator and per-endpoint recorder
+     */
+    static class Traffic {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final String adminToken;
+        private final int seededUsers;
+        private final Endpoint[] schedule;
+        private final Random random;
+
+        private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+        private final LongAdder dropped = new LongAdder();
+        private final AtomicLong createdCount = new AtomicLong();
+        // Created users as returned by the API, ready to be sent back in an update
+        private final ConcurrentLinkedDeque<Map<String, Object>> createdUsers = new ConcurrentLinkedDeque<>();
+
+        Traffic(HttpClient client, String baseUrl, String adminToken, int seededUsers, Map<Endpoint, Integer> mix, long seed) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.adminToken = adminToken;
+            this.seededUsers = seededUsers;
+            this.random = new Random(seed);
+
+            // One slot per weight unit, picked at random for each request
+            List<Endpoint> slots = new ArrayList<>();
+            mix.forEach((endpoint, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    slots.add(endpoint);
+                }
+            });
+            this.schedule = slots.toArray(new Endpoint[0]);
+            reset();
+        }
+
+        void reset() {
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.put(endpoint, new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3));
+                errors.put(endpoint, new LongAdder());
+            }
+            dropped.reset();
+        }
+
+        void run(int rate, int seconds, int maxInFlight) throws InterruptedException {
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            long total = (long) rate * seconds;
+            long start = System.nanoTime();
+
+            try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long i = 0; i < total; i++) {
+                    long scheduledAt = start + i * intervalNanos;
+                    long wait = scheduledAt - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    if (!inFlight.tryAcquire()) {
+                        dropped.increment();
+                        continue;
+                    }
+                    Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+                    requests.submit(() -> {
+                        try {
+                            call(endpoint, scheduledAt);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+        }
+
+        private void call(Endpoint endpoint, long scheduledAt) {
+            Endpoint actual = endpoint;
+            boolean ok;
+            try {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                switch (endpoint) {
+                    case LOGIN -> {
+                        int user = random.nextInt(seededUsers);
+                        ok = send(post("/api/auth/login", loginBody("load" + user, SEED_PASSWORD), false)) == 200;
+                    }
+                    case LIST -> {
+                        int page = 1 + random.nextInt(Math.max(1, Math.min(seededUsers / 4, 100)));
+                        String sortBy = SORT_FIELDS[random.nextInt(SORT_FIELDS.length)];
+                        String sortDir = random.nextBoolean() ? "asc" : "desc";
+                        ok = send(get("/api/users?page=" + page + "&size=4&sortBy=" + sortBy + "&sortDir=" + sortDir)) == 200;
+                    }
+                    case RECENT -> ok = send(get("/api/users/recent?limit=5")) == 200;
+                    case UPDATE, DELETE -> {
+                        Map<String, Object> user = createdUsers.pollFirst();
+                        if (user == null) {
+                            actual = Endpoint.CREATE;
+                            ok = create();
+                        } else if (endpoint == Endpoint.UPDATE) {
+                            user.put("name", "Updated " + user.get("username"));
+                            ok = send(put("/api/users/" + user.get("id"), JSON.writeValueAsString(user))) == 200;
+                            createdUsers.addLast(user);
+                        } else {
+                            ok = send(delete("/api/users/" + user.get("id"))) == 200;
+                        }
+                    }
+                    default -> ok = create();
+                }
+            } catch (Exception e) {
+                ok = false;
+            }
+
+            latencies.get(actual).recordValue(Math.min(System.nanoTime() - scheduledAt, TimeUnit.MINUTES.toNanos(1)));
+            if (!ok) {
+                errors.get(actual).increment();
+            }
+        }
+
+        private boolean create() throws Exception {
+            long n = createdCount.incrementAndGet();
+            String body = "{\"name\":\"Created " + n + "\",\"email\":\"created" + n + "@example.com\",\"username\":\"created"
+                    + n + "\",\"password\":\"" + SEED_PASSWORD + "\",\"role\":\"user\"}";
+            HttpResponse<String> response = client.send(post("/api/users", body, true), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            createdUsers.addLast(JSON.readValue(response.body(), new TypeReference<>() { }));
+            return true;
+        }
+
+        private int send(HttpRequest request) throws Exception {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private HttpRequest get(String path) {
+            return authorized(path).GET().build();
+        }
+
+        private HttpRequest post(String path, String body, boolean authenticated) {
+            HttpRequest.Builder builder = authenticated ? authorized(path) : HttpRequest.newBuilder(URI.create(baseUrl + path));
+            return builder.header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpRequest put(String path, String body) {
+            return authorized(path).header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpRequest delete(String path) {
+            return authorized(path).DELETE().build();
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + adminToken)
+                    .timeout(Duration.ofSeconds(30));
+        }
+
+        void print(double elapsedSeconds) {
+            System.out.printf("%-8s %9s %8s %10s %10s %10s %10s %10s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            Histogram all = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+            long allErrors = 0;
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram histogram = latencies.get(endpoint);
+                long endpointErrors = errors.get(endpoint).sum();
+                if (histogram.getTotalCount() > 0) {
+                    printRow(endpoint.name().toLowerCase(), histogram, endpointErrors, elapsedSeconds);
+                }
+                all.add(histogram);
+                allErrors += endpointErrors;
+            }
+            printRow("all", all, allErrors, elapsedSeconds);
+            System.out.printf("dropped (over --max-in-flight): %d%n", dropped.sum());
+        }
+
+        private static void printRow(String name, Histogram histogram, long errors, double elapsedSeconds) {
+            System.out.printf("%-8s %9d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name,
+                    histogram.getTotalCount(), errors, histogram.getTotalCount() / elapsedSeconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
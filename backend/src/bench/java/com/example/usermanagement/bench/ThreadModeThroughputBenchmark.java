@@ -0,0 +1,166 @@
+package com.example.usermanagement.bench;
+
+import com.example.usermanagement.UserManagementApplication;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Concurrent-request throughput of the servlet stack with platform threads versus
+ * virtual threads (spring.threads.virtual.enabled).
+ *
+ * Boots the application once per mode against the same MongoDB, logs in, then has
+ * N concurrent clients call GET /api/users (a MongoDB-bound page query, or --path) for
+ * a fixed time. By default MongoDB is the in-process stand-in behind a latency proxy, so the
+ * driver calls block like they would on a network; pass --mongo-uri to use a real server.
+ *
+ * Options: --concurrency=500 --seconds=15 --warmup-seconds=5 --tomcat-threads=200
+ *          --mongo-latency-ms=2 --mongo-uri=mongodb://... --path=/api/users?page=2&size=4
+ */
+public class ThreadModeThroughputBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = intOption(args, "concurrency", 500);
+        int seconds = intOption(args, "seconds", 15);
+        int warmupSeconds = intOption(args, "warmup-seconds", 5);
+        int tomcatThreads = intOption(args, "tomcat-threads", 200);
+        int mongoLatencyMillis = intOption(args, "mongo-latency-ms", 2);
+        String mongoUri = option(args, "mongo-uri", null);
+        String path = option(args, "path", "/api/users?page=2&size=4&sortBy=name");
+
+        MongoServer mongoServer = null;
+        LatencyProxy proxy = null;
+        if (mongoUri == null) {
+            mongoServer = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = mongoServer.bind();
+            proxy = new LatencyProxy(address.getHostString(), address.getPort(), mongoLatencyMillis);
+            mongoUri = "mongodb://localhost:" + proxy.getPort() + "/usermanagement-bench";
+        }
+
+        List<String> results = new ArrayList<>();
+        try {
+            for (boolean virtualThreads : new boolean[] {false, true}) {
+                results.add(runMode(virtualThreads, mongoUri, path, concurrency, seconds, warmupSeconds, tomcatThreads));
+            }
+        } finally {
+            if (proxy != null) {
+                proxy.close();
+            }
+            if (mongoServer != null) {
+                mongoServer.shutdown();
+            }
+        }
+
+        System.out.println();
+        System.out.printf("GET %s, %d concurrent clients, %ds, tomcat max threads %d, mongo latency %sms%n",
+                path, concurrency, seconds, tomcatThreads, mongoServer != null ? mongoLatencyMillis : "n/a");
+        System.out.printf("%-10s %12s %10s %10s%n", "mode", "requests/s", "ok", "errors");
+        results.forEach(System.out::println);
+    }
+
+    private static String runMode(boolean virtualThreads, String mongoUri, String path, int concurrency, int seconds,
+                                  int warmupSeconds, int tomcatThreads) throws Exception {
+        ConfigurableApplicationContext context = SpringApplication.run(UserManagementApplication.class,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--server.tomcat.accept-count=" + (concurrency * 2),
+                "--app.query-plan.verify=false",
+                "--logging.level.root=WARN");
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String token = login(client, baseUrl);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+
+            drive(client, request, concurrency, warmupSeconds);
+            long[] counts = drive(client, request, concurrency, seconds);
+            return String.format("%-10s %12.0f %10d %10d", virtualThreads ? "virtual" : "platform",
+                    counts[0] / (double) seconds, counts[0], counts[1]);
+        } finally {
+            context.close();
+        }
+    }
+
+    // Returns {successful requests, failed requests}
+    private static long[] drive(HttpClient client, HttpRequest request, int concurrency, int seconds) throws InterruptedException {
+        LongAdder ok = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                ok.increment();
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                    }
+                });
+            }
+        }
+        return new long[] {ok.sum(), errors.sum()};
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"sony\",\"password\":\"admin123\"}"))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    static int intOption(String[] args, String name, int defaultValue) {
+        String value = option(args, name, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
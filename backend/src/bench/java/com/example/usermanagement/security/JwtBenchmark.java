@@ -0,0 +1,104 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification costs. validateToken is measured with the verified-token
+ * cache (a repeat request) and without it (a token seen for the first time), and with
+ * 10,000 other tokens revoked in the same expiry slot as the one being checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "myVerySecureSecretKeyThatIsAtLeast32CharactersLongForHMACSHA256Algorithm";
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private JwtUtil revokingJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        cachedJwtUtil = jwtUtil(10_000);
+        uncachedJwtUtil = jwtUtil(0);
+        revokingJwtUtil = jwtUtil(10_000);
+        token = cachedJwtUtil.generateToken("sony", "admin");
+
+        TokenRevocationList revocations = revocations(revokingJwtUtil);
+        long expiresAt = revokingJwtUtil.verify(token).getExpiresAtMillis();
+        for (int i = 0; i < 10_000; i++) {
+            revocations.revoke(new VerifiedToken("user" + i, "user", expiresAt, UUID.randomUUID().toString(), 0));
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken("sony", "admin");
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return cachedJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        return uncachedJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCachedWithRevocations() {
+        return revokingJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractRole() {
+        return cachedJwtUtil.extractRole(token);
+    }
+
+    // Same values Spring injects from application.properties
+    private static JwtUtil jwtUtil(int cacheMaxSize) throws ReflectiveOperationException {
+        JwtUtil jwtUtil = new JwtUtil();
+        set(jwtUtil, "secret", SECRET);
+        set(jwtUtil, "expiration", 86400L);
+        set(jwtUtil, "cacheMaxSize", cacheMaxSize);
+        set(jwtUtil, "revocations", new TokenRevocationList(revokedTokens(), new SimpleMeterRegistry(), 86400, 3600, 10_000, 30_000));
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static TokenRevocationList revocations(JwtUtil jwtUtil) throws ReflectiveOperationException {
+        Field field = JwtUtil.class.getDeclaredField("revocations");
+        field.setAccessible(true);
+        return (TokenRevocationList) field.get(jwtUtil);
+    }
+
+    // Saves are dropped and queries find nothing; only the in-memory list is measured
+    private static RevokedTokenRepository revokedTokens() {
+        return (RevokedTokenRepository) Proxy.newProxyInstance(RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> method.getName().startsWith("find") ? List.of() : args == null ? null : args[0]);
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.usermanagement.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one login password check per stored hash format, i.e. the work each
+ * request puts on the password hashing pool
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordMatchBenchmark {
+
+    private static final String RAW_PASSWORD = "password123";
+
+    @Param({"BCrypt", "Argon2id"})
+    String algorithm;
+
+    // Without an executor, so the hash runs on the benchmark thread
+    private final HybridPasswordEncoder encoder = new HybridPasswordEncoder();
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        encodedPassword = "BCrypt".equals(algorithm)
+                ? new BCryptPasswordEncoder().encode(RAW_PASSWORD)
+                : encoder.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(RAW_PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.bench.BenchUsers;
+import com.example.usermanagement.model.UserSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of the paginated /api/users response map
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({"4", "50", "500"})
+    int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> response;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to its ObjectMapper (java.time module, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<UserSummary> users = BenchUsers.create(pageSize).stream().map(UserSummary::of).collect(Collectors.toList());
+        response = UserService.toPageResponse(new PageImpl<>(users, PageRequest.of(0, pageSize), 100_000));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
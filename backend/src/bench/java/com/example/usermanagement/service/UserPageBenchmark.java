@@ -0,0 +1,71 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.bench.BenchUsers;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.UserProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The in-process part of a /api/users page: MongoDB now sorts and pages, so what is
+ * left per request is building the page request, shaping the response map and
+ * encoding/decoding the keyset cursor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserPageBenchmark {
+
+    @Param({"4", "50", "500"})
+    int pageSize;
+
+    @Param({"name", "createdAt", "id"})
+    String sortBy;
+
+    private PageImpl<UserSummary> page;
+    private UserCursor cursor;
+    private String encodedCursor;
+
+    @Setup
+    public void setUp() {
+        List<UserSummary> users = BenchUsers.create(pageSize).stream().map(UserSummary::of).collect(Collectors.toList());
+        PageRequest pageRequest = UserService.buildPageRequest(3, pageSize, sortBy, "asc");
+        page = new PageImpl<>(users, pageRequest, 100_000);
+        cursor = UserService.startCursor(null, pageSize, sortBy, "asc");
+        encodedCursor = UserCursor.after(users.get(users.size() - 1), cursor.getSortField(), cursor.getDirection()).encode();
+    }
+
+    @Benchmark
+    public PageRequest buildPageRequest() {
+        return UserService.buildPageRequest(3, pageSize, sortBy, "asc");
+    }
+
+    @Benchmark
+    public Map<String, Object> toPageResponse() {
+        return UserService.toPageResponse(page);
+    }
+
+    @Benchmark
+    public Map<String, Object> toCursorResponse() {
+        // The slice holds one user more than the page, as fetched by getUsersAfterCursor
+        return UserService.toCursorResponse(page.getContent(), pageSize - 1, cursor, UserProjection.SUMMARY);
+    }
+
+    @Benchmark
+    public UserCursor decodeCursor() {
+        return UserService.startCursor(encodedCursor, pageSize, sortBy, "asc");
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.usermanagement.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer setup beyond what Actuator configures itself.
+ *
+ * - TimedAspect turns @Timed on beans (UserService) into timers
+ * - MongoDB command latency comes from Boot's MongoMetricsCommandListener, registered on the
+ *   driver as mongodb.driver.commands (tagged by command, collection and status)
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
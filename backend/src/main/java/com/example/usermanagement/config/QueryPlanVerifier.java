@@ -0,0 +1,229 @@
+package com.example.usermanagement.config;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserProjection;
+import com.example.usermanagement.repository.UserRepositoryImpl;
+import com.example.usermanagement.repository.UserSortField;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs explain on every query shape issued through UserRepository at startup and
+ * reports any that MongoDB would answer with a collection scan.
+ *
+ * - Finds are explained as find commands; page and search are explained as the $facet
+ *   aggregations the repository actually runs
+ * - A shape that cannot be explained is logged and skipped, the rest are still checked
+ * - app.query-plan.verify turns the check on or off
+ * - app.query-plan.fail-on-collscan aborts startup instead of only logging
+ */
+@Component
+public class QueryPlanVerifier implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.query-plan.verify:true}")
+    private boolean verify;
+
+    @Value("${app.query-plan.fail-on-collscan:false}")
+    private boolean failOnCollectionScan;
+
+    public QueryPlanVerifier(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!verify) {
+            return;
+        }
+
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class));
+        List<String> collectionScans = new ArrayList<>();
+        int verified = 0;
+        int skipped = 0;
+
+        for (Map.Entry<String, QueryShape> entry : queryShapes().entrySet()) {
+            QueryShape shape = entry.getValue();
+            Document explain;
+            try {
+                explain = collection.find(shape.filter).sort(shape.sort).limit(shape.limit).explain();
+            } catch (Exception e) {
+                logger.warn("Explain failed for query shape {}, skipping it: {}", entry.getKey(), e.getMessage());
+                skipped++;
+                continue;
+            }
+            verified++;
+            if (usesCollectionScan(explain)) {
+                collectionScans.add(entry.getKey());
+                logger.error("COLLSCAN for query shape {}: filter={} sort={}", entry.getKey(), shape.filter.toJson(), shape.sort.toJson());
+            } else {
+                logger.debug("Index-backed query shape {}", entry.getKey());
+            }
+        }
+
+        AggregationOptions explainOnly = AggregationOptions.builder().explain(true).build();
+        for (Map.Entry<String, TypedAggregation<User>> entry : aggregationShapes().entrySet()) {
+            Document explain;
+            try {
+                explain = mongoTemplate.aggregate(entry.getValue().withOptions(explainOnly), Document.class).getRawResults();
+            } catch (Exception e) {
+                logger.warn("Explain failed for query shape {}, skipping it: {}", entry.getKey(), e.getMessage());
+                skipped++;
+                continue;
+            }
+            verified++;
+            if (usesCollectionScan(explain)) {
+                collectionScans.add(entry.getKey());
+                logger.error("COLLSCAN for query shape {}: pipeline={}", entry.getKey(), entry.getValue());
+            } else {
+                logger.debug("Index-backed query shape {}", entry.getKey());
+            }
+        }
+
+        if (collectionScans.isEmpty()) {
+            logger.info("Verified {} user query shapes, none use a collection scan ({} could not be explained)", verified, skipped);
+            return;
+        }
+
+        String message = "User queries without index support: " + collectionScans;
+        if (failOnCollectionScan) {
+            throw new IllegalStateException(message);
+        }
+        logger.error("===============================================");
+        logger.error(message);
+        logger.error("===============================================");
+    }
+
+    // Mirrors the filters and sorts built by UserRepository and UserRepositoryImpl
+    private Map<String, QueryShape> queryShapes() {
+        Map<String, QueryShape> shapes = new LinkedHashMap<>();
+        shapes.put("findById", new QueryShape(new Document("_id", new ObjectId()), new Document(), 1));
+        shapes.put("findByUsername", new QueryShape(new Document("username", "username"), new Document(), 1));
+        shapes.put("findByRole", new QueryShape(new Document("role", "user"), new Document(), 0));
+        shapes.put("findByOrderByCreatedAtDesc", new QueryShape(new Document(), new Document("createdAt", -1), 50));
+        shapes.put("findByRoleOrderByCreatedAtDesc", new QueryShape(new Document("role", "user"), new Document("createdAt", -1), 50));
+
+        for (UserSortField sortField : UserSortField.values()) {
+            // Keyset continuation: (field > value) or (field == value and _id > id)
+            String field = fieldName(sortField);
+            Object value = sortField == UserSortField.ID ? new ObjectId() : "m";
+            Document after = sortField == UserSortField.ID
+                    ? new Document("_id", new Document("$gt", value))
+                    : new Document("$or", List.of(
+                            new Document(field, new Document("$gt", value)),
+                            new Document(field, value).append("_id", new Document("$gt", new ObjectId()))));
+            Document sort = new Document(field, 1);
+            if (sortField != UserSortField.ID) {
+                sort.append("_id", 1);
+            }
+            shapes.put("slice(all, " + sortField.getProperty() + ")", new QueryShape(after, sort, 20));
+            shapes.put("slice(role, " + sortField.getProperty() + ")",
+                    new QueryShape(new Document("role", "user").append("$and", List.of(after)), sort, 20));
+        }
+
+        return shapes;
+    }
+
+    // The page and search pipelines from UserRepositoryImpl, with the sorts UserService builds
+    private Map<String, TypedAggregation<User>> aggregationShapes() {
+        Map<String, TypedAggregation<User>> shapes = new LinkedHashMap<>();
+        String id = UserSortField.ID.getProperty();
+        for (UserSortField sortField : UserSortField.values()) {
+            Sort sort = sortField == UserSortField.ID
+                    ? Sort.by(Sort.Direction.DESC, id)
+                    : Sort.by(Sort.Direction.DESC, sortField.getProperty()).and(Sort.by(Sort.Direction.DESC, id));
+            Pageable pageable = PageRequest.of(0, 20, sort);
+            for (String role : new String[] {null, "user"}) {
+                String scope = role == null ? "all" : "role";
+                shapes.put("page(" + scope + ", " + sortField.getProperty() + ")",
+                        UserRepositoryImpl.pageAggregation(role, pageable, UserProjection.SUMMARY));
+            }
+        }
+
+        // Text search in relevance order; the plan should use the TEXT stage rather than scan
+        Pageable relevance = PageRequest.of(0, 20);
+        shapes.put("search(all)", UserRepositoryImpl.searchAggregation("john", null, relevance, UserProjection.SUMMARY));
+        shapes.put("search(role)", UserRepositoryImpl.searchAggregation("john", "user", relevance, UserProjection.SUMMARY));
+        return shapes;
+    }
+
+    private static String fieldName(UserSortField sortField) {
+        return sortField == UserSortField.ID ? "_id" : sortField.getProperty();
+    }
+
+    // A find explain has one queryPlanner.winningPlan; an aggregation explain nests one per
+    // cursor stage (or shard), so every winning plan in the document is checked
+    private static boolean usesCollectionScan(Object explain) {
+        if (explain instanceof Document) {
+            Document document = (Document) explain;
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                if (entry.getKey().equals("winningPlan")
+                        ? containsStage(entry.getValue(), "COLLSCAN")
+                        : !entry.getKey().equals("rejectedPlans") && usesCollectionScan(entry.getValue())) {
+                    return true;
+                }
+            }
+        } else if (explain instanceof List) {
+            for (Object value : (List<?>) explain) {
+                if (usesCollectionScan(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Walks the plan tree (inputStage, inputStages, queryPlan, ...) looking for the given stage
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document) {
+            Document document = (Document) plan;
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List) {
+            for (Object value : (List<?>) plan) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class QueryShape {
+        final Document filter;
+        final Document sort;
+        final int limit;
+
+        QueryShape(Document filter, Document sort, int limit) {
+            this.filter = filter;
+            this.sort = sort;
+            this.limit = limit;
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.usermanagement.controller;
 
 import com.example.usermanagement.security.JwtUtil;
+import com.example.usermanagement.security.LoginThrottle;
+import com.example.usermanagement.security.TokenRevocationList;
+import com.example.usermanagement.security.UserPrincipal;
+import com.example.usermanagement.security.VerifiedToken;
 import com.example.usermanagement.security.CustomUserDetailsService;
+import com.example.usermanagement.exception.LoginThrottledException;
+import com.example.usermanagement.exception.PasswordHashingUnavailableException;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.service.UserService;
 import com.example.usermanagement.service.PasswordMigrationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +33,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class AuthController {
@@ -33,6 +46,12 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
@@ -42,23 +61,44 @@ public class AuthController {
     @Autowired
     private PasswordMigrationService passwordMigrationService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         logger.info("Login attempt for username: {}", loginRequest.getUsername());
         
+        // Before authenticate, so a throttled attempt costs no password hash
         try {
-            authenticationManager.authenticate(
+            loginThrottle.acquire(request.getRemoteAddr(), loginRequest.getUsername());
+        } catch (LoginThrottledException e) {
+            return throttled(loginRequest.getUsername(), e);
+        }
+        
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
             );
             logger.info("Authentication successful for user: {}", loginRequest.getUsername());
+            // Only failed attempts count against the username
+            loginThrottle.onSuccess(request.getRemoteAddr(), loginRequest.getUsername());
         } catch (BadCredentialsException e) {
             logger.warn("Authentication failed for user: {}", loginRequest.getUsername());
+            countLogin("failure");
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", "Invalid credentials");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        } catch (PasswordHashingUnavailableException e) {
+            return hashingUnavailable(loginRequest.getUsername(), e);
         } catch (Exception e) {
+            // The provider wraps failures while loading the user, including a saturated hashing pool
+            if (e.getCause() instanceof PasswordHashingUnavailableException) {
+                return hashingUnavailable(loginRequest.getUsername(), (PasswordHashingUnavailableException) e.getCause());
+            }
             logger.error("Authentication error for user: {}", loginRequest.getUsername(), e);
+            countLogin("error");
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", "Authentication failed: " + e.getMessage());
@@ -66,15 +106,18 @@ public class AuthController {
         }
 
         try {
-            logger.info("Loading user details for: {}", loginRequest.getUsername());
-            logger.info("User details loaded successfully");
-            
-            // Get user info for response
-            logger.info("Finding user by username: {}", loginRequest.getUsername());
-            User user = userService.findByUsername(loginRequest.getUsername()).orElse(null);
+            // Get user info for response from the principal loaded during authentication
+            User user;
+            if (authentication.getPrincipal() instanceof UserPrincipal) {
+                user = ((UserPrincipal) authentication.getPrincipal()).getUser();
+            } else {
+                logger.info("Finding user by username: {}", loginRequest.getUsername());
+                user = userService.findByUsername(loginRequest.getUsername()).orElse(null);
+            }
             
             if (user == null) {
                 logger.error("User not found in database: {}", loginRequest.getUsername());
+                countLogin("error");
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
                 response.put("message", "User not found");
@@ -85,9 +128,9 @@ public class AuthController {
             final String jwt = jwtUtil.generateToken(user.getUsername(), user.getRole());
             logger.info("JWT token generated successfully");
             
-            // Upgrade password encoding if needed (BCrypt -> Argon2id migration)
+            // Upgrade password encoding if needed (BCrypt -> Argon2id migration), off the request thread
             logger.info("Checking if password upgrade is needed for user: {}", user.getUsername());
-            passwordMigrationService.upgradePasswordIfNeeded(user.getUsername(), loginRequest.getPassword());
+            passwordMigrationService.upgradePasswordIfNeeded(user, loginRequest.getPassword());
             
             logger.info("Creating user response for: {}", user.getUsername());
             UserResponse userResponse = new UserResponse(user);
@@ -100,10 +143,12 @@ public class AuthController {
             response.put("user", userResponse);
             
             logger.info("Login completed successfully for user: {}", loginRequest.getUsername());
+            countLogin("success");
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             logger.error("Error after authentication for user: {}", loginRequest.getUsername(), e);
+            countLogin("error");
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", "Login processing failed: " + e.getMessage());
@@ -111,20 +156,45 @@ public class AuthController {
         }
     }
 
+    private ResponseEntity<?> hashingUnavailable(String username, PasswordHashingUnavailableException e) {
+        logger.warn("Password hashing pool saturated, rejecting login for user: {}", username);
+        countLogin("unavailable");
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    private ResponseEntity<?> throttled(String username, LoginThrottledException e) {
+        logger.warn("Login throttled for user: {}", username);
+        countLogin("throttled");
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    // auth.login{outcome=success|failure|throttled|unavailable|error}
+    private void countLogin(String outcome) {
+        meterRegistry.counter("auth.login", "outcome", outcome).increment();
+    }
+
     @PostMapping("/validate")
     public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String token) {
         try {
             if (token.startsWith("Bearer ")) {
                 String jwtToken = token.substring(7);
-                if (jwtUtil.validateToken(jwtToken)) {
-                    String username = jwtUtil.extractUsername(jwtToken);
-                    String role = jwtUtil.extractRole(jwtToken);
-                    
+                VerifiedToken verified = jwtUtil.verify(jwtToken);
+                if (verified != null) {
                     Map<String, Object> response = new HashMap<>();
                     response.put("success", true);
                     response.put("message", "Token valid");
-                    response.put("username", username);
-                    response.put("role", role);
+                    response.put("username", verified.getUsername());
+                    response.put("role", verified.getRole());
                     
                     return ResponseEntity.ok(response);
                 }
@@ -141,6 +211,36 @@ public class AuthController {
         }
     }
 
+    // Revoke the bearer token itself; it stops working on this instance at once and on others after their next sync
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String token) {
+        VerifiedToken verified = token != null && token.startsWith("Bearer ") ? jwtUtil.verify(token.substring(7)) : null;
+        Map<String, Object> response = new HashMap<>();
+        if (verified == null) {
+            response.put("success", false);
+            response.put("message", "Invalid token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+        
+        tokenRevocationList.revoke(verified);
+        logger.info("Token revoked on logout for user: {}", verified.getUsername());
+        response.put("success", true);
+        response.put("message", "Logged out");
+        return ResponseEntity.ok(response);
+    }
+
+    // Revoke every token issued to a user so far, e.g. after disabling the account
+    @PostMapping("/revoke/{username}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeUserTokens(@PathVariable String username) {
+        tokenRevocationList.revokeUser(username);
+        logger.info("All tokens revoked for user: {}", username);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Tokens revoked for " + username);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/password-stats")
     public ResponseEntity<?> getPasswordStatistics() {
         try {
@@ -149,15 +249,7 @@ public class AuthController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Password statistics retrieved");
-            response.put("statistics", Map.of(
-                "totalUsers", stats.totalCount,
-                "argon2idCount", stats.argon2idCount,
-                "bcryptCount", stats.bcryptCount,
-                "unknownCount", stats.unknownCount,
-                "argon2idPercentage", Math.round(stats.getArgon2idPercentage() * 100.0) / 100.0,
-                "bcryptPercentage", Math.round(stats.getBcryptPercentage() * 100.0) / 100.0,
-                "migrationComplete", stats.bcryptCount == 0
-            ));
+            response.put("statistics", statisticsBody(stats));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -168,6 +260,19 @@ public class AuthController {
         }
     }
 
+    // Also used by the reactive controller, so both stacks return the same shape
+    static Map<String, Object> statisticsBody(PasswordMigrationService.PasswordStatistics stats) {
+        return Map.of(
+            "totalUsers", stats.totalCount,
+            "argon2idCount", stats.argon2idCount,
+            "bcryptCount", stats.bcryptCount,
+            "unknownCount", stats.unknownCount,
+            "argon2idPercentage", Math.round(stats.getArgon2idPercentage() * 100.0) / 100.0,
+            "bcryptPercentage", Math.round(stats.getBcryptPercentage() * 100.0) / 100.0,
+            "migrationComplete", stats.bcryptCount == 0
+        );
+    }
+
     // Inner classes for request/response
     public static class LoginRequest {
         private String username;
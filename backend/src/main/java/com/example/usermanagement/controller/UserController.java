@@ -1,66 +1,202 @@
 package com.example.usermanagement.controller;
 
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.service.RecentUsersCache;
+import com.example.usermanagement.service.UserCollectionVersion;
+import com.example.usermanagement.service.UserExportFormat;
+import com.example.usermanagement.service.UserImportService;
 import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.service.UserSuggestIndex;
+import com.example.usermanagement.dto.BulkRoleUpdateRequest;
 import com.example.usermanagement.dto.PasswordResetRequest;
+import com.example.usermanagement.repository.UserFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/users")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class UserController {
 
+    // Browsers may keep list responses but must revalidate them, which is a 304 while nothing changed
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final UserService service;
+    private final UserImportService importService;
+    private final UserCollectionVersion collectionVersion;
 
-    public UserController(UserService service) {
+    public UserController(UserService service, UserImportService importService, UserCollectionVersion collectionVersion) {
         this.service = service;
+        this.importService = importService;
+        this.collectionVersion = collectionVersion;
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
-    public Map<String, Object> getUsers(
+    public ResponseEntity<Map<String, Object>> getUsers(
             @RequestParam(required = false) String userRole,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "4") int size,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            Authentication authentication,
+            WebRequest request) {
         
-        if ("user".equals(userRole)) {
-            // Normal users should only see other normal users (not admins)
-            return service.getUsersByRoleWithPagination("user", page, size, sortBy, sortDir);
-        } else {
-            // Admin users can see all users
-            return service.getAllUsersWithPagination(page, size, sortBy, sortDir);
-        }
+        // Normal users should only see other normal users (not admins)
+        String role = visibleRole(authentication, userRole);
+        String etag = collectionVersion.etag("users", role, page, size, sortBy, sortDir, after, fields);
+        return conditional(request, etag, () -> {
+            if (after != null) {
+                // Cursor mode: pass an empty "after" for the first page, then the returned nextCursor
+                return service.getUsersAfterCursor(role, after, size, sortBy, sortDir, fields);
+            }
+            
+            if ("user".equals(role)) {
+                // Normal users should only see other normal users (not admins)
+                return service.getUsersByRoleWithPagination("user", page, size, sortBy, sortDir, fields);
+            } else {
+                // Admin users can see all users
+                return service.getAllUsersWithPagination(page, size, sortBy, sortDir, fields);
+            }
+        });
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Map<String, Object> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "4") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+        // Normal users should only find other normal users (not admins)
+        String role = visibleRole(authentication, userRole);
+        return service.searchUsers(q, role, page, size, sortBy, sortDir, fields);
+    }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public List<UserSummary> suggestUsers(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        int boundedLimit = Math.max(1, Math.min(limit, UserSuggestIndex.MAX_LIMIT));
+        // Normal users should only see other normal users (not admins)
+        String role = visibleRole(authentication, userRole);
+        return service.suggestUsers(prefix, role, boundedLimit);
     }
 
     @GetMapping("/recent")
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
-    public List<User> getRecentUsers(@RequestParam(required = false) String userRole) {
-        if ("user".equals(userRole)) {
-            // Get recent users with 'user' role only
-            return service.getRecentUsersByRole("user", 5);
-        } else if ("admin".equals(userRole)) {
-            // Get recent users with 'admin' role only
-            return service.getRecentUsersByRole("admin", 5);
-        } else {
-            // Get all recent users (default behavior for dashboard)
-            return service.getRecentUsers(5);
-        }
+    public ResponseEntity<List<UserSummary>> getRecentUsers(
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) String fields,
+            Authentication authentication,
+            WebRequest request) {
+        // Keep the limit within what the recent users cache holds
+        int boundedLimit = Math.max(1, Math.min(limit, RecentUsersCache.CAPACITY));
+        // Only admins may ask for all users or for admins only
+        String role = isAdmin(authentication) && "admin".equals(userRole) ? "admin" : visibleRole(authentication, userRole);
+        
+        String etag = collectionVersion.etag("recent", role, boundedLimit, fields);
+        return conditional(request, etag, () -> {
+            if ("user".equals(role)) {
+                // Get recent users with 'user' role only
+                return service.getRecentUsersByRole("user", boundedLimit, fields);
+            } else if ("admin".equals(role)) {
+                // Get recent users with 'admin' role only
+                return service.getRecentUsersByRole("admin", boundedLimit, fields);
+            } else {
+                // Get all recent users (default behavior for dashboard)
+                return service.getRecentUsers(boundedLimit, fields);
+            }
+        });
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            Authentication authentication) {
+        // Resolved up front so an unknown format is a 400 rather than a broken download
+        UserExportFormat exportFormat = UserExportFormat.fromParameter(format);
+        // Normal users should only see other normal users (not admins)
+        String role = visibleRole(authentication, userRole);
+        
+        StreamingResponseBody body = out -> service.exportUsers(role, sortBy, sortDir, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<Map<String, Object>> getUserStats(Authentication authentication, WebRequest request) {
+        // Normal users get counts without admins, decided by their role rather than a parameter
+        boolean admin = isAdmin(authentication);
+        return conditional(request, collectionVersion.etag("stats", admin), () -> service.getUserStats(admin));
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public User createUser(@Valid @RequestBody User user) {
+    public User createUser(@Validated(User.Create.class) @RequestBody User user) {
         return service.createUser(user);
     }
 
+    // Body is a JSON array of users or CSV with a header row; read as a stream, not bound up front
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        Map<String, Object> response = importService.importUsers(MediaType.parseMediaType(contentType), body);
+        // Malformed input part way through: rows before it were imported and are reported
+        HttpStatus status = response.containsKey("error") ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/bulk-update")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> updateUsersMatching(@Valid @RequestBody BulkRoleUpdateRequest request) {
+        return service.updateRoleMatching(request.getFilter(), request.getRole());
+    }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> deleteUsersMatching(@RequestBody UserFilter filter) {
+        return service.deleteMatching(filter);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public User updateUser(@PathVariable String id, @Valid @RequestBody User user) {
@@ -83,4 +219,23 @@ public class UserController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // 304 when If-None-Match has the current ETag, without running the query or writing a body
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
+    }
+
+    // Role the caller may list: "user" for normal users whatever they ask for, otherwise the requested filter
+    static String visibleRole(Authentication authentication, String userRole) {
+        return !isAdmin(authentication) || "user".equals(userRole) ? "user" : null;
+    }
+
+    // Also used by the reactive controller
+    static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.usermanagement.dto;
+
+import com.example.usermanagement.repository.UserFilter;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public class BulkRoleUpdateRequest {
+    @NotNull(message = "Filter is required")
+    private UserFilter filter;
+
+    @NotBlank(message = "Role is required")
+    @Pattern(regexp = "^(admin|user)$", message = "Role must be either 'admin' or 'user'")
+    private String role;
+    
+    // Default constructor
+    public BulkRoleUpdateRequest() {}
+    
+    // Getters and setters
+    public UserFilter getFilter() {
+        return filter;
+    }
+    
+    public void setFilter(UserFilter filter) {
+        this.filter = filter;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
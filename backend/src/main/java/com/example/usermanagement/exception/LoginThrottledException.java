@@ -0,0 +1,19 @@
+package com.example.usermanagement.exception;
+
+/**
+ * Thrown when a login attempt exceeds the per-IP or per-username rate, before any
+ * password is hashed. Mapped to 429 Too Many Requests with a Retry-After header.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.usermanagement.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated and cannot accept more work.
+ * Mapped to 503 Service Unavailable with a Retry-After header.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.usermanagement.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A revoked JWT, by its jti claim, or every token of a user issued up to revokedAt
+ * (id "user:" + username). MongoDB drops the document once expiresAt has passed.
+ */
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+
+    public static final String USER_PREFIX = "user:";
+
+    @Id
+    private String id;
+
+    private String username;
+
+    // TTL: a revoked token is no use to anyone after its own exp
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+
+    // Other instances poll for entries revoked since their last sync
+    @Indexed
+    private Instant revokedAt;
+
+    public RevokedToken() {}
+
+    public RevokedToken(String id, String username, Instant expiresAt, Instant revokedAt) {
+        this.id = id;
+        this.username = username;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public boolean isUserRevocation() {
+        return id != null && id.startsWith(USER_PREFIX);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
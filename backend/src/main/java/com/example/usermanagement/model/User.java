@@ -4,11 +4,30 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
+import jakarta.validation.groups.Default;
 import java.time.LocalDateTime;
 
-@Document(collection = "users")
+// language "none": the text index neither stems nor drops stop words, which suits names and usernames
+@Document(collection = "users", language = "none")
+@CompoundIndexes({
+    // Role filter, with or without a sort; ends in _id to match the id tiebreaker on every sort
+    @CompoundIndex(name = "role_id", def = "{'role': 1, '_id': 1}"),
+    @CompoundIndex(name = "role_createdAt_id", def = "{'role': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "role_name_id", def = "{'role': 1, 'name': 1, '_id': 1}"),
+    @CompoundIndex(name = "role_email_id", def = "{'role': 1, 'email': 1, '_id': 1}"),
+    @CompoundIndex(name = "role_updatedAt_id", def = "{'role': 1, 'updatedAt': -1, '_id': -1}"),
+    // Unfiltered sorts
+    @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}"),
+    @CompoundIndex(name = "email_id", def = "{'email': 1, '_id': 1}"),
+    @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "updatedAt_id", def = "{'updatedAt': -1, '_id': -1}")
+})
 public class User {
 
     @Id
@@ -16,21 +35,27 @@ public class User {
 
     @NotBlank(message = "Name is required")
     @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
+    @TextIndexed(weight = 3)
     private String name;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
     @Size(max = 255, message = "Email must not exceed 255 characters")
     @Indexed(unique = true)
+    @TextIndexed
     private String email;
     
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
     @Pattern(regexp = "^[a-zA-Z0-9._-]+$", message = "Username can only contain letters, numbers, dots, underscores and hyphens")
     @Indexed(unique = true)
+    @TextIndexed(weight = 5)
     private String username;
     
-    @NotBlank(message = "Password is required")
+    // Required when creating; on update a blank password keeps the current hash.
+    // Accepted in requests but never serialized, so hashes do not leave the server.
+    @NotBlank(message = "Password is required", groups = Create.class)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     
     @NotBlank(message = "Role is required")
@@ -43,6 +68,12 @@ public class User {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    /**
+     * Validation group for new users: the default constraints plus a required password
+     */
+    public interface Create extends Default {
+    }
+
     public User() {
     }
 
@@ -0,0 +1,110 @@
+package com.example.usermanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Read model for user lists: the {@link User} fields without the password hash.
+ * List queries load it through a MongoDB projection, so the hash is never read.
+ * Fields left out by a fields= projection stay null and are omitted from the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserSummary {
+
+    private String id;
+    private String name;
+    private String email;
+    private String username;
+    private String role;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public UserSummary() {
+    }
+
+    public static UserSummary of(User user) {
+        UserSummary summary = new UserSummary();
+        summary.id = user.getId();
+        summary.name = user.getName();
+        summary.email = user.getEmail();
+        summary.username = user.getUsername();
+        summary.role = user.getRole();
+        summary.createdAt = user.getCreatedAt();
+        summary.updatedAt = user.getUpdatedAt();
+        return summary;
+    }
+
+    /**
+     * Copy holding only the given fields (and the id)
+     * @param fields Property names, as accepted by fields=
+     */
+    public UserSummary withOnly(Set<String> fields) {
+        UserSummary copy = new UserSummary();
+        copy.id = id;
+        copy.name = fields.contains("name") ? name : null;
+        copy.email = fields.contains("email") ? email : null;
+        copy.username = fields.contains("username") ? username : null;
+        copy.role = fields.contains("role") ? role : null;
+        copy.createdAt = fields.contains("createdAt") ? createdAt : null;
+        copy.updatedAt = fields.contains("updatedAt") ? updatedAt : null;
+        return copy;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
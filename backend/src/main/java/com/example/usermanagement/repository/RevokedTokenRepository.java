@@ -0,0 +1,16 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    // Everything still in force, read at startup
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+    // Revocations made through any instance since a sync
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+}
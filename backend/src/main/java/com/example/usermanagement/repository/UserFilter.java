@@ -0,0 +1,61 @@
+package com.example.usermanagement.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects the users a bulk update or delete applies to. Every criterion that is set
+ * must match; at least one has to be set.
+ */
+public class UserFilter {
+    private String role;
+    // createdAt range, from inclusive and to exclusive
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private List<String> ids;
+
+    public UserFilter() {}
+
+    public UserFilter(String role, LocalDateTime createdFrom, LocalDateTime createdTo, List<String> ids) {
+        this.role = role;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+        this.ids = ids;
+    }
+
+    public boolean isEmpty() {
+        return role == null && createdFrom == null && createdTo == null && (ids == null || ids.isEmpty());
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.UserSummary;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The user fields a list query reads from MongoDB, from an optional fields= request
+ * parameter. The id is always included and the password hash never is.
+ */
+public final class UserProjection {
+
+    private static final List<String> SUMMARY_FIELDS =
+            List.of("name", "email", "username", "role", "createdAt", "updatedAt");
+
+    // Lower-cased parameter name to property name
+    private static final Map<String, String> FIELDS_BY_PARAMETER = SUMMARY_FIELDS.stream()
+            .collect(Collectors.toMap(field -> field.toLowerCase(Locale.ROOT), Function.identity()));
+
+    /**
+     * Every {@link UserSummary} field
+     */
+    public static final UserProjection SUMMARY = new UserProjection(new LinkedHashSet<>(SUMMARY_FIELDS));
+
+    private final Set<String> fields;
+
+    private UserProjection(Set<String> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Resolve a fields request parameter
+     * @param value Comma-separated field names, e.g. "name,email"; null or empty for every field
+     * @throws IllegalArgumentException for an unknown field, or for password
+     */
+    public static UserProjection fromParameter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return SUMMARY;
+        }
+
+        Set<String> fields = new LinkedHashSet<>();
+        for (String name : value.split(",")) {
+            String key = name.trim().toLowerCase(Locale.ROOT);
+            if (key.isEmpty() || key.equals("id")) {
+                continue;
+            }
+            String field = FIELDS_BY_PARAMETER.get(key);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field: " + name.trim() + " (allowed: id, " + String.join(", ", SUMMARY_FIELDS) + ")");
+            }
+            fields.add(field);
+        }
+        return fields.size() == SUMMARY_FIELDS.size() ? SUMMARY : new UserProjection(fields);
+    }
+
+    /**
+     * This projection plus one more field, e.g. the sort field a cursor needs
+     */
+    public UserProjection including(UserSortField sortField) {
+        if (sortField == UserSortField.ID || fields.contains(sortField.getProperty())) {
+            return this;
+        }
+        Set<String> extended = new LinkedHashSet<>(fields);
+        extended.add(sortField.getProperty());
+        return new UserProjection(extended);
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Restrict a query to these fields. _id is named explicitly: with fields=id alone there
+     * would otherwise be no projection at all, and whole documents would be read.
+     */
+    public Query applyTo(Query query) {
+        query.fields().include(Fields.UNDERSCORE_ID);
+        fields.forEach(query.fields()::include);
+        return query;
+    }
+
+    /**
+     * $project stage keeping these fields and _id; an empty $project is rejected by MongoDB
+     */
+    public AggregationOperation stage() {
+        return Aggregation.project(fields.toArray(new String[0])).andInclude(Fields.UNDERSCORE_ID);
+    }
+
+    /**
+     * Apply to users already in memory, e.g. from a cache
+     */
+    public List<UserSummary> applyTo(List<UserSummary> users) {
+        if (this == SUMMARY) {
+            return users;
+        }
+        return users.stream().map(user -> user.withOnly(fields)).collect(Collectors.toList());
+    }
+}
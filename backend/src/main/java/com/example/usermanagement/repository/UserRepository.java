@@ -1,6 +1,8 @@
 package com.example.usermanagement.repository;
 
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,7 +10,10 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     List<User> findByRole(String role);
-}
\ No newline at end of file
+    // DTO projections: only the UserSummary fields are read, never the password hash
+    List<UserSummary> findByOrderByCreatedAtDesc(Pageable pageable);
+    List<UserSummary> findByRoleOrderByCreatedAtDesc(String role, Pageable pageable);
+}
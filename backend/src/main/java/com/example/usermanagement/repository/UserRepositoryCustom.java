@@ -0,0 +1,120 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Queries on the users collection that need more than derived query methods
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Fetch one sorted page of users together with the total match count in a single round trip
+     *
+     * @param role Role to filter on, or null for all users
+     * @param pageable Page number, size and sort to apply in MongoDB
+     * @param projection Fields to read for each user
+     * @param knownTotal Total already counted for this role, or null to count it; when given,
+     *                   only the page is read
+     * @return The requested page
+     */
+    Page<UserSummary> findPage(String role, Pageable pageable, UserProjection projection, Long knownTotal);
+
+    /**
+     * Full-text search over name, email and username using the users text index. Terms
+     * match whole words (e.g. "john" matches "John Doe" and "john.doe@example.com"). Only the
+     * best {@link UserRepositoryImpl#MAX_SEARCH_MATCHES} matches are paged and counted.
+     *
+     * @param text Search terms, in MongoDB $text syntax
+     * @param role Role to filter on, or null for all users
+     * @param pageable Page number and size; an unsorted pageable orders by relevance
+     * @param projection Fields to read for each user
+     * @return The requested page of matches
+     */
+    Page<UserSummary> searchPage(String text, String role, Pageable pageable, UserProjection projection);
+
+    /**
+     * Keyset pagination: fetch the users that sort strictly after the given (sort field, id)
+     * position. Ties on the sort field are broken by id in the same direction.
+     *
+     * @param role Role to filter on, or null for all users
+     * @param sortField Field to sort by
+     * @param direction Sort direction
+     * @param afterValue Sort field value of the last user already returned (may be null)
+     * @param afterId Id of the last user already returned, or null for the first page
+     * @param limit Maximum number of users to return
+     * @param projection Fields to read for each user; the sort field is always read as well
+     * @return Users in sort order
+     */
+    List<UserSummary> findSlice(String role, UserSortField sortField, Sort.Direction direction,
+                                Object afterValue, String afterId, int limit, UserProjection projection);
+
+    /**
+     * Stream users from a MongoDB cursor, fetched in batches, for exports. The stream
+     * holds the cursor open and must be closed by the caller.
+     *
+     * @param role Role to filter on, or null for all users
+     * @param sort Sort to apply in MongoDB
+     * @return Users in sort order, without their password hash
+     */
+    Stream<User> streamUsers(String role, Sort sort);
+
+    /**
+     * Insert users with one unordered bulkWrite. A failed row (typically a duplicate
+     * username or email) does not stop the rest of the batch.
+     *
+     * @param users Users to insert, with ids already assigned
+     * @return Index in users to failure message, for the rows that were not inserted
+     */
+    Map<Integer, String> insertUnordered(List<User> users);
+
+    /**
+     * Set the role of every user matching the filter with one updateMany
+     * @return Matched and modified counts
+     */
+    UpdateResult updateRoleMatching(UserFilter filter, String role);
+
+    /**
+     * Delete every user matching the filter with one deleteMany
+     * @return Number of users deleted
+     */
+    long deleteMatching(UserFilter filter);
+
+    /**
+     * Count users per role with a single $group aggregation
+     * @return Role name to user count
+     */
+    Map<String, Long> countUsersByRole();
+
+    /**
+     * Delete a user and return the removed document in one round trip
+     * @param id The user id
+     * @return The deleted user, or null if no user had that id
+     */
+    User findAndDeleteById(String id);
+
+    /**
+     * Replace a user's password hash only if it still holds the expected value, so a
+     * background rehash never overwrites a password changed in the meantime
+     *
+     * @param id The user id
+     * @param expectedPassword The hash the rehash was computed from
+     * @param newPassword The new hash
+     * @return true if the document was updated
+     */
+    boolean updatePasswordIfUnchanged(String id, String expectedPassword, String newPassword);
+
+    /**
+     * Count password hashes per algorithm with a single aggregation over the password field
+     * @return Map with "Argon2id", "BCrypt" and "unknown" keys for the algorithms present
+     */
+    Map<String, Long> countPasswordsByAlgorithm();
+}
@@ -0,0 +1,348 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * MongoTemplate-backed implementation of {@link UserRepositoryCustom}, picked up by
+ * Spring Data as a fragment of {@link UserRepository}
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    // Best text match first, id as tiebreaker so pages are stable
+    private static final Document RELEVANCE = new Document("score", new Document("$meta", "textScore"))
+            .append("_id", 1);
+
+    // Most matches a search sorts and counts; a common term such as "com" matches every user,
+    // so without a cap each search would sort and count the whole collection
+    public static final int MAX_SEARCH_MATCHES = 1000;
+
+    // Users per getMore while streaming an export
+    static final int EXPORT_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Page<UserSummary> findPage(String role, Pageable pageable, UserProjection projection, Long knownTotal) {
+        if (knownTotal != null) {
+            List<UserSummary> users = mongoTemplate.find(pageQuery(role, pageable, projection), UserSummary.class,
+                    mongoTemplate.getCollectionName(User.class));
+            return new PageImpl<>(users, pageable, knownTotal);
+        }
+        PageResult result = mongoTemplate
+                .aggregate(pageAggregation(role, pageable, projection), PageResult.class)
+                .getUniqueMappedResult();
+        return toPage(result, pageable);
+    }
+
+    // One round trip for the page and the total; shared with the reactive repository and QueryPlanVerifier
+    public static TypedAggregation<User> pageAggregation(String role, Pageable pageable, UserProjection projection) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (role != null) {
+            operations.add(Aggregation.match(Criteria.where("role").is(role)));
+        }
+        // Sort ahead of $facet so the sort can still be served by an index
+        if (pageable.getSort().isSorted()) {
+            operations.add(Aggregation.sort(pageable.getSort()));
+        }
+        operations.add(pageFacet(pageable, projection));
+        return Aggregation.newAggregation(User.class, operations);
+    }
+
+    // The page alone, without the count, for when the total is already known; shared like pageAggregation
+    static Query pageQuery(String role, Pageable pageable, UserProjection projection) {
+        Query query = new Query();
+        if (role != null) {
+            query.addCriteria(Criteria.where("role").is(role));
+        }
+        projection.applyTo(query);
+        return query.with(pageable);
+    }
+
+    // Projected after the limit, so only the returned page is reshaped
+    private static AggregationOperation pageFacet(Pageable pageable, UserProjection projection) {
+        return Aggregation
+                .facet(Aggregation.skip(pageable.getOffset()), Aggregation.limit(pageable.getPageSize()), projection.stage()).as("users")
+                .and(Aggregation.count().as("total")).as("total");
+    }
+
+    @Override
+    public Page<UserSummary> searchPage(String text, String role, Pageable pageable, UserProjection projection) {
+        PageResult result = mongoTemplate
+                .aggregate(searchAggregation(text, role, pageable, projection), PageResult.class)
+                .getUniqueMappedResult();
+        return toPage(result, pageable);
+    }
+
+    // $text must be in the first stage, where it is answered from the text index; shared like pageAggregation
+    public static TypedAggregation<User> searchAggregation(String text, String role, Pageable pageable, UserProjection projection) {
+        Document match = new Document("$text", new Document("$search", text));
+        if (role != null) {
+            match.append("role", role);
+        }
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(context -> new Document("$match", match));
+        operations.add(pageable.getSort().isSorted()
+                ? Aggregation.sort(pageable.getSort())
+                : context -> new Document("$sort", RELEVANCE));
+        // Directly after $sort, so MongoDB keeps only the top matches while sorting;
+        // the facet's total is then at most MAX_SEARCH_MATCHES
+        operations.add(Aggregation.limit(MAX_SEARCH_MATCHES));
+        operations.add(pageFacet(pageable, projection));
+        return Aggregation.newAggregation(User.class, operations);
+    }
+
+    static Page<UserSummary> toPage(PageResult result, Pageable pageable) {
+        if (result == null || result.users == null) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        long total = result.total == null || result.total.isEmpty() ? 0 : result.total.get(0).total;
+        return new PageImpl<>(result.users, pageable, total);
+    }
+
+    @Override
+    public List<UserSummary> findSlice(String role, UserSortField sortField, Sort.Direction direction,
+                                       Object afterValue, String afterId, int limit, UserProjection projection) {
+        Query query = sliceQuery(role, sortField, direction, afterValue, afterId, limit, projection);
+        return mongoTemplate.find(query, UserSummary.class, mongoTemplate.getCollectionName(User.class));
+    }
+
+    // Shared with the reactive repository, like pageAggregation
+    static Query sliceQuery(String role, UserSortField sortField, Sort.Direction direction,
+                            Object afterValue, String afterId, int limit, UserProjection projection) {
+        Query query = new Query();
+        if (role != null) {
+            query.addCriteria(Criteria.where("role").is(role));
+        }
+        if (afterId != null) {
+            query.addCriteria(afterCriteria(sortField, direction, afterValue, afterId));
+        }
+
+        String id = UserSortField.ID.getProperty();
+        Sort sort = sortField == UserSortField.ID
+                ? Sort.by(direction, id)
+                : Sort.by(direction, sortField.getProperty()).and(Sort.by(direction, id));
+        // The next cursor is built from the sort field, so it is read even if not requested
+        projection.including(sortField).applyTo(query);
+        return query.with(sort).limit(limit);
+    }
+
+    @Override
+    public Stream<User> streamUsers(String role, Sort sort) {
+        return mongoTemplate.stream(exportQuery(role, sort), User.class);
+    }
+
+    // Shared with the reactive repository; the password hash is never read for an export
+    static Query exportQuery(String role, Sort sort) {
+        Query query = new Query();
+        if (role != null) {
+            query.addCriteria(Criteria.where("role").is(role));
+        }
+        query.fields().exclude("password");
+        return query.with(sort).cursorBatchSize(EXPORT_BATCH_SIZE);
+    }
+
+    // Range condition selecting everything after (afterValue, afterId). MongoDB sorts
+    // null/missing values before any string or date, which the null branches mirror.
+    private static Criteria afterCriteria(UserSortField sortField, Sort.Direction direction, Object afterValue, String afterId) {
+        String id = UserSortField.ID.getProperty();
+        boolean ascending = direction.isAscending();
+        // Range operators are not id-converted by the query mapper, so compare against the ObjectId itself
+        Object idValue = ObjectId.isValid(afterId) ? new ObjectId(afterId) : afterId;
+        Criteria idAfter = ascending ? Criteria.where(id).gt(idValue) : Criteria.where(id).lt(idValue);
+
+        if (sortField == UserSortField.ID) {
+            return idAfter;
+        }
+
+        String field = sortField.getProperty();
+        if (afterValue == null) {
+            Criteria sameValue = new Criteria().andOperator(Criteria.where(field).is(null), idAfter);
+            return ascending
+                    ? new Criteria().orOperator(sameValue, Criteria.where(field).ne(null))
+                    : sameValue;
+        }
+
+        Criteria valueAfter = ascending ? Criteria.where(field).gt(afterValue) : Criteria.where(field).lt(afterValue);
+        Criteria sameValue = new Criteria().andOperator(Criteria.where(field).is(afterValue), idAfter);
+        return ascending
+                ? new Criteria().orOperator(valueAfter, sameValue)
+                : new Criteria().orOperator(valueAfter, sameValue, Criteria.where(field).is(null));
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<User> users) {
+        if (users.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(users).execute();
+            return Collections.emptyMap();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> failures = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), insertFailure(error));
+            }
+            return failures;
+        }
+    }
+
+    // Duplicate key errors name the unique index that was hit ("index: username dup key: ...")
+    private static String insertFailure(BulkWriteError error) {
+        if (error.getCode() != DUPLICATE_KEY) {
+            return error.getMessage();
+        }
+        String message = error.getMessage();
+        if (message.contains("index: username")) {
+            return "Username already exists";
+        }
+        if (message.contains("index: email")) {
+            return "Email already exists";
+        }
+        return "Duplicate key";
+    }
+
+    @Override
+    public UpdateResult updateRoleMatching(UserFilter filter, String role) {
+        return mongoTemplate.updateMulti(filterQuery(filter), roleUpdate(role), User.class);
+    }
+
+    @Override
+    public long deleteMatching(UserFilter filter) {
+        return mongoTemplate.remove(filterQuery(filter), User.class).getDeletedCount();
+    }
+
+    // Shared with the reactive repository
+    static Query filterQuery(UserFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("Filter must set at least one of role, createdFrom, createdTo or ids");
+        }
+        if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+                && !filter.getCreatedFrom().isBefore(filter.getCreatedTo())) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+
+        Query query = new Query();
+        if (filter.getRole() != null) {
+            query.addCriteria(Criteria.where("role").is(filter.getRole()));
+        }
+        if (filter.getCreatedFrom() != null || filter.getCreatedTo() != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (filter.getCreatedFrom() != null) {
+                createdAt.gte(filter.getCreatedFrom());
+            }
+            if (filter.getCreatedTo() != null) {
+                createdAt.lt(filter.getCreatedTo());
+            }
+            query.addCriteria(createdAt);
+        }
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            List<Object> ids = new ArrayList<>(filter.getIds().size());
+            for (String id : filter.getIds()) {
+                ids.add(ObjectId.isValid(id) ? new ObjectId(id) : id);
+            }
+            query.addCriteria(Criteria.where(UserSortField.ID.getProperty()).in(ids));
+        }
+        return query;
+    }
+
+    static Update roleUpdate(String role) {
+        return new Update()
+                .set("role", role)
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    @Override
+    public Map<String, Long> countUsersByRole() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("role").count().as("count"));
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, User.class, Document.class)) {
+            Object role = result.get("_id");
+            counts.put(role == null ? "none" : role.toString(), ((Number) result.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public User findAndDeleteById(String id) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where(UserSortField.ID.getProperty()).is(id)), User.class);
+    }
+
+    @Override
+    public boolean updatePasswordIfUnchanged(String id, String expectedPassword, String newPassword) {
+        Query query = Query.query(Criteria.where(UserSortField.ID.getProperty()).is(id)
+                .and("password").is(expectedPassword));
+        Update update = new Update()
+                .set("password", newPassword)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, User.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public Map<String, Long> countPasswordsByAlgorithm() {
+        // Hash prefixes start with "$", so they are passed as literals rather than field paths
+        Document password = new Document("$ifNull", List.of("$password", ""));
+        Document argon2id = new Document("$eq", List.of(
+                new Document("$substrCP", List.of(password, 0, 10)),
+                new Document("$literal", "$argon2id$")));
+        Document bcrypt = new Document("$in", List.of(
+                new Document("$substrCP", List.of(password, 0, 4)),
+                new Document("$literal", List.of("$2a$", "$2b$", "$2y$"))));
+        Document algorithm = new Document("$cond", List.of(argon2id, "Argon2id",
+                new Document("$cond", List.of(bcrypt, "BCrypt", "unknown"))));
+
+        List<Document> pipeline = List.of(
+                new Document("$project", new Document("_id", 0).append("password", 1)),
+                new Document("$group", new Document("_id", algorithm).append("count", new Document("$sum", 1))));
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document result : mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class)).aggregate(pipeline)) {
+            counts.put(result.getString("_id"), ((Number) result.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    // Shape of the $facet output document
+    static class PageResult {
+        List<UserSummary> users;
+        List<TotalCount> total;
+    }
+
+    static class TotalCount {
+        long total;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.usermanagement.repository;
+
+/**
+ * Fields the user listing can be sorted by, mapped to their {@link com.example.usermanagement.model.User}
+ * property names so sorting can be pushed down to MongoDB.
+ */
+public enum UserSortField {
+    ID("id"),
+    NAME("name"),
+    EMAIL("email"),
+    ROLE("role"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    UserSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Resolve a sortBy request parameter
+     * @param value The raw parameter, e.g. "name", "createdAt" or "created_at"
+     * @return The matching field, or null if the value is empty or not sortable
+     */
+    public static UserSortField fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        switch (value.toLowerCase()) {
+            case "id":
+                return ID;
+            case "name":
+                return NAME;
+            case "email":
+                return EMAIL;
+            case "role":
+                return ROLE;
+            case "createdat":
+            case "created_at":
+                return CREATED_AT;
+            case "updatedat":
+            case "updated_at":
+                return UPDATED_AT;
+            default:
+                return null;
+        }
+    }
+}
@@ -1,38 +1,31 @@
 package com.example.usermanagement.security;
 
 import com.example.usermanagement.model.User;
-import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.service.UserLookupCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserLookupCache userLookupCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        // Read through the user cache; writes to a user invalidate it
+        Optional<User> userOpt = userLookupCache.findByUsername(username);
         
         if (userOpt.isEmpty()) {
             throw new UsernameNotFoundException("User not found: " + username);
         }
         
-        User user = userOpt.get();
-        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase());
-        
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(Collections.singletonList(authority))
-                .build();
+        // Keep the loaded document on the principal so login does not read it again
+        return new UserPrincipal(userOpt.get());
     }
 }
@@ -12,22 +12,45 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  * - Argon2id passwords are identified by the $argon2id$ prefix
  * - New passwords are encoded with Argon2id
  * - Existing BCrypt passwords continue to work during migration
+ * - When given a {@link PasswordHashingExecutor}, hashing runs on its bounded pool
+ *   instead of the calling request thread, timed per operation and algorithm
  */
 public class HybridPasswordEncoder implements PasswordEncoder {
     
     private final PasswordEncoder argon2Encoder;
     private final PasswordEncoder bcryptEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
     
     public HybridPasswordEncoder() {
+        this(null);
+    }
+    
+    public HybridPasswordEncoder(PasswordHashingExecutor hashingExecutor) {
         // Use Argon2id with Spring Security defaults (secure configuration)
-        this.argon2Encoder = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
-        this.bcryptEncoder = new BCryptPasswordEncoder();
+        this(Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(), new BCryptPasswordEncoder(), hashingExecutor);
+    }
+    
+    private HybridPasswordEncoder(PasswordEncoder argon2Encoder, PasswordEncoder bcryptEncoder,
+                                  PasswordHashingExecutor hashingExecutor) {
+        this.argon2Encoder = argon2Encoder;
+        this.bcryptEncoder = bcryptEncoder;
+        this.hashingExecutor = hashingExecutor;
+    }
+    
+    /**
+     * This encoder's configuration, hashing on the calling thread. For work that was
+     * already submitted to the hashing pool and must not queue on it a second time.
+     */
+    public HybridPasswordEncoder onCallingThread() {
+        return hashingExecutor == null ? this : new HybridPasswordEncoder(argon2Encoder, bcryptEncoder, null);
     }
     
     @Override
     public String encode(CharSequence rawPassword) {
-        // Always encode new passwords with Argon2id
-        return argon2Encoder.encode(rawPassword);
+        if (hashingExecutor != null) {
+            return hashingExecutor.encode("Argon2id", () -> encodeNow(rawPassword));
+        }
+        return encodeNow(rawPassword);
     }
     
     @Override
@@ -36,6 +59,18 @@ public class HybridPasswordEncoder implements PasswordEncoder {
             return false;
         }
         
+        if (hashingExecutor != null) {
+            return hashingExecutor.matches(getAlgorithm(encodedPassword), () -> matchesNow(rawPassword, encodedPassword));
+        }
+        return matchesNow(rawPassword, encodedPassword);
+    }
+    
+    private String encodeNow(CharSequence rawPassword) {
+        // Always encode new passwords with Argon2id
+        return argon2Encoder.encode(rawPassword);
+    }
+    
+    private boolean matchesNow(CharSequence rawPassword, String encodedPassword) {
         // Check if it's an Argon2id hash
         if (encodedPassword.startsWith("$argon2id$")) {
             return argon2Encoder.matches(rawPassword, encodedPassword);
@@ -1,11 +1,16 @@
 package com.example.usermanagement.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,47 +19,78 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Time spent in this filter before the rest of the chain, by outcome
+    private Timer authenticatedTimer;
+    private Timer rejectedTimer;
+    private Timer anonymousTimer;
+
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    // One immutable authority list per role, shared by every authentication for that role
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        authenticatedTimer = filterTimer("authenticated");
+        rejectedTimer = filterTimer("rejected");
+        anonymousTimer = filterTimer("anonymous");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain chain) throws ServletException, IOException {
 
+        long startedAt = System.nanoTime();
+        Timer timer = anonymousTimer;
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-
         // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-            } catch (Exception e) {
-                logger.warn("JWT Token validation failed", e);
-            }
-        }
+        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwtToken = requestTokenHeader.substring(7);
 
-        // Once we get the token validate it.
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwtToken)) {
-                String role = jwtUtil.extractRole(jwtToken);
-                if (role != null) {
-                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
-                    
-                    UsernamePasswordAuthenticationToken authenticationToken = 
-                        new UsernamePasswordAuthenticationToken(username, null, Collections.singletonList(authority));
-                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                }
+            // Signature, expiry and claims are checked in a single (cached) parse
+            VerifiedToken verified = jwtUtil.verify(jwtToken);
+            timer = rejectedTimer;
+            if (verified == null) {
+                logger.warn("JWT Token validation failed");
+            } else if (verified.getUsername() != null && verified.getRole() != null) {
+                UsernamePasswordAuthenticationToken authenticationToken = 
+                    new UsernamePasswordAuthenticationToken(verified.getUsername(), null, authoritiesFor(verified.getRole()));
+                authenticationToken.setDetails(detailsSource.buildDetails(request));
+                
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                timer = authenticatedTimer;
             }
         }
+        timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
         chain.doFilter(request, response);
     }
+
+    private Timer filterTimer(String outcome) {
+        return Timer.builder("jwt.filter.duration")
+                .description("Time spent verifying the bearer token")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private List<GrantedAuthority> authoritiesFor(String role) {
+        return authoritiesByRole.computeIfAbsent(role,
+            key -> Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + key.toUpperCase())));
+    }
 }
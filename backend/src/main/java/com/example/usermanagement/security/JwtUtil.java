@@ -1,38 +1,114 @@
 package com.example.usermanagement.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    // Power of two, so a token's stripe is a mask of its hash
+    private static final int STRIPES = 64;
+
     @Value("${jwt.secret:mySecretKey}")
     private String secret;
 
     @Value("${jwt.expiration:86400}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Autowired
+    private TokenRevocationList revocations;
+
+    // Built once; both are immutable and safe to share between request threads
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Recently verified tokens, keyed by SHA-256 of the token, split across STRIPES independently
+    // locked LRU maps so concurrent requests rarely wait on the same lock; null when caching is off
+    private Stripe[] verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        if (cacheMaxSize > 0) {
+            verifiedTokens = new Stripe[STRIPES];
+            int stripeCapacity = Math.max(1, cacheMaxSize / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                verifiedTokens[i] = new Stripe(stripeCapacity);
+            }
+        }
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    /**
+     * Verify a token once and return its claims. Tokens seen recently are answered
+     * from the cache without another HMAC check, until they expire. Revocation is
+     * checked on every call, cached or not, against the in-memory revocation list.
+     *
+     * @param token The compact JWT
+     * @return The verified claims, or null if the token is invalid, expired or revoked
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        String key = verifiedTokens == null ? null : hash(token);
+        VerifiedToken cached = key == null ? null : cached(key, now);
+        if (cached != null) {
+            return revocations.isRevoked(cached) ? null : cached;
+        }
+
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.getExpiration() == null || !claims.getExpiration().after(new Date(now))) {
+            return null;
+        }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(), claims.get("role", String.class), claims.getExpiration().getTime(),
+                claims.getId(), claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime());
+        if (key != null) {
+            Stripe stripe = stripe(key);
+            stripe.lock.lock();
+            try {
+                stripe.tokens.put(key, verified);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return revocations.isRevoked(verified) ? null : verified;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -41,15 +117,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -67,27 +135,70 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                // jti: what a logout revokes
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final VerifiedToken verified = verify(token);
+        return verified != null && verified.getUsername().equals(userDetails.getUsername());
     }
 
     public Boolean validateToken(String token) {
-        try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token) != null;
     }
 
     public String extractRole(String token) {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
+
+    // The cached token if it has not expired; an expired one is dropped
+    private VerifiedToken cached(String key, long now) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            VerifiedToken cached = stripe.tokens.get(key);
+            if (cached != null && cached.isExpired(now)) {
+                stripe.tokens.remove(key);
+                return null;
+            }
+            return cached;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return verifiedTokens[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Stripe {
+        // A lock rather than synchronized, like the other in-memory stores, so virtual threads never pin
+        final ReentrantLock lock = new ReentrantLock();
+        // Access order; once full, the least recently used token is dropped
+        final Map<String, VerifiedToken> tokens;
+
+        Stripe(int capacity) {
+            this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
 }
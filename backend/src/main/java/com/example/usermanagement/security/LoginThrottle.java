@@ -0,0 +1,265 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets in front of the password check on login: per client IP, per username from
+ * one client IP, and per username across all clients, so neither a single client nor a
+ * spray against one account can keep the hashing pool busy. A rejected attempt never
+ * reaches the password encoder.
+ *
+ * - The IP bucket is taken first, so a client that is already throttled cannot also
+ *   drain the buckets of the account it is guessing at
+ * - Username buckets are refunded on a successful login, so only failures use them up.
+ *   Guessing from one address locks out only that address; locking the account everywhere
+ *   takes the much larger user-total budget of failures
+ * - Buckets live in lock-striped LRU maps of at most app.login-throttle.max-keys each;
+ *   a periodic sweep drops buckets that have refilled completely, which loses nothing
+ * - auth.login.throttled{key=ip|user|user_total} counts rejections, auth.login.throttle.keys{key}
+ *   the buckets held
+ *
+ * The client IP is the request's remote address. Behind a reverse proxy, set
+ * server.forward-headers-strategy so that it is the real client's.
+ */
+@Component
+public class LoginThrottle {
+
+    // Power of two, so a key's stripe is a mask of its hash
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final BucketStore ipBuckets;
+    private final BucketStore userBuckets;
+    private final BucketStore userTotalBuckets;
+    private final Counter ipThrottled;
+    private final Counter userThrottled;
+    private final Counter userTotalThrottled;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${app.login-throttle.ip.burst:20}") int ipBurst,
+                         @Value("${app.login-throttle.ip.per-minute:20}") int ipPerMinute,
+                         @Value("${app.login-throttle.user.burst:5}") int userBurst,
+                         @Value("${app.login-throttle.user.per-minute:5}") int userPerMinute,
+                         @Value("${app.login-throttle.user-total.burst:100}") int userTotalBurst,
+                         @Value("${app.login-throttle.user-total.per-minute:100}") int userTotalPerMinute,
+                         @Value("${app.login-throttle.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.ipBuckets = new BucketStore(ipBurst, ipPerMinute, maxKeys);
+        this.userBuckets = new BucketStore(userBurst, userPerMinute, maxKeys);
+        this.userTotalBuckets = new BucketStore(userTotalBurst, userTotalPerMinute, maxKeys);
+        this.ipThrottled = throttledCounter(meterRegistry, "ip");
+        this.userThrottled = throttledCounter(meterRegistry, "user");
+        this.userTotalThrottled = throttledCounter(meterRegistry, "user_total");
+        keysGauge(meterRegistry, "ip", ipBuckets);
+        keysGauge(meterRegistry, "user", userBuckets);
+        keysGauge(meterRegistry, "user_total", userTotalBuckets);
+    }
+
+    /**
+     * Take one login attempt from the client's bucket and the username's buckets
+     * @throws LoginThrottledException if any bucket is empty
+     */
+    public void acquire(String clientIp, String username) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = ipBuckets.tryTake(ipKey(clientIp), now);
+        if (waitNanos > 0) {
+            ipThrottled.increment();
+            throw new LoginThrottledException("Too many login attempts from this address", retryAfterSeconds(waitNanos));
+        }
+        waitNanos = userBuckets.tryTake(userKey(username) + '\n' + ipKey(clientIp), now);
+        if (waitNanos > 0) {
+            userThrottled.increment();
+            throw new LoginThrottledException("Too many login attempts for this user", retryAfterSeconds(waitNanos));
+        }
+        waitNanos = userTotalBuckets.tryTake(userKey(username), now);
+        if (waitNanos > 0) {
+            userTotalThrottled.increment();
+            throw new LoginThrottledException("Too many login attempts for this user", retryAfterSeconds(waitNanos));
+        }
+    }
+
+    /**
+     * Give back the username attempts taken by {@link #acquire} once the password was right.
+     * The IP bucket is not refunded: it bounds hashing work, which a success costs too.
+     */
+    public void onSuccess(String clientIp, String username) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        userBuckets.giveBack(userKey(username) + '\n' + ipKey(clientIp), now);
+        userTotalBuckets.giveBack(userKey(username), now);
+    }
+
+    /**
+     * Drop buckets that have refilled; a new bucket for the key would start out the same
+     */
+    @Scheduled(fixedDelayString = "${app.login-throttle.sweep-interval-ms:60000}",
+               initialDelayString = "${app.login-throttle.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        ipBuckets.sweep(now);
+        userBuckets.sweep(now);
+        userTotalBuckets.sweep(now);
+    }
+
+    private static String ipKey(String clientIp) {
+        return clientIp == null ? "" : clientIp;
+    }
+
+    // Case-folded, so case variants of one name share a bucket
+    private static String userKey(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before the password check")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static void keysGauge(MeterRegistry meterRegistry, String key, BucketStore store) {
+        Gauge.builder("auth.login.throttle.keys", store, BucketStore::size)
+                .description("Login throttle buckets held in memory")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    // Buckets for one kind of key, split across STRIPES independently locked LRU maps
+    private static final class BucketStore {
+        private final double capacity;
+        private final double tokensPerNano;
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        BucketStore(int burst, int perMinute, int maxKeys) {
+            this.capacity = Math.max(1, burst);
+            this.tokensPerNano = Math.max(1, perMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+            int stripeCapacity = Math.max(1, maxKeys / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(stripeCapacity);
+            }
+        }
+
+        // 0 if a token was taken, otherwise the nanos until one will be available
+        long tryTake(String key, long now) {
+            Stripe stripe = stripe(key);
+            stripe.lock.lock();
+            try {
+                Bucket bucket = stripe.buckets.get(key);
+                if (bucket == null) {
+                    bucket = new Bucket(capacity, now);
+                    stripe.buckets.put(key, bucket);
+                }
+                bucket.refill(now, capacity, tokensPerNano);
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return 0;
+                }
+                return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        // Return a token taken by tryTake; a bucket dropped since then started out full anyway
+        void giveBack(String key, long now) {
+            Stripe stripe = stripe(key);
+            stripe.lock.lock();
+            try {
+                Bucket bucket = stripe.buckets.get(key);
+                if (bucket != null) {
+                    bucket.refill(now, capacity, tokensPerNano);
+                    bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        void sweep(long now) {
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    stripe.buckets.values().removeIf(bucket -> {
+                        bucket.refill(now, capacity, tokensPerNano);
+                        return bucket.tokens >= capacity;
+                    });
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+
+        private Stripe stripe(String key) {
+            int hash = key.hashCode();
+            return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        }
+
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    size += stripe.buckets.size();
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            return size;
+        }
+    }
+
+    private static final class Stripe {
+        // A lock rather than synchronized, like the other in-memory stores, so virtual threads never pin
+        final ReentrantLock lock = new ReentrantLock();
+        // Access order; once full, the least recently used key's bucket is dropped
+        final Map<String, Bucket> buckets;
+
+        Stripe(int capacity) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        void refill(long now, double capacity, double tokensPerNano) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
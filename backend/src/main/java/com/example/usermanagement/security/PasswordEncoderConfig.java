@@ -0,0 +1,25 @@
+package com.example.usermanagement.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Password encoder shared by both web stacks, the data initializer, the migration service and bulk import
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    public HybridPasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        // Use hybrid encoder for seamless migration from BCrypt to Argon2id,
+        // hashing on a bounded pool instead of request threads
+        return new HybridPasswordEncoder(passwordHashingExecutor);
+        
+        // Pure Argon2id configuration (use after full migration)
+        // return Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        
+        // Alternative: Custom Argon2id configuration for higher security
+        // return new Argon2PasswordEncoder(16, 32, 1, 4096, 3);
+        // Parameters: saltLength, hashLength, parallelism, memory, iterations
+    }
+}
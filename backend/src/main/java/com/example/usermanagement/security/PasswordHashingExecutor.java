@@ -0,0 +1,186 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, size-limited pool for Argon2id/BCrypt work, so a burst of logins
+ * cannot take every request thread (and the memory Argon2 needs) at once.
+ *
+ * - At most pool-size hashes run concurrently, at most queue-capacity wait
+ * - When both are full the caller fails fast with {@link PasswordHashingUnavailableException}
+ * - Queue wait and hash time are recorded as password.hash.queue.wait and
+ *   password.hash.duration (tagged with operation and algorithm)
+ * - submitEncode/submitMatches return a future instead of blocking, for the reactive stack
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWaitTimer;
+    // password.hash.duration by algorithm, one map per operation; the algorithms HybridPasswordEncoder
+    // reports are registered up front, so hashing only reads a map
+    private final Map<String, Timer> encodeTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> matchesTimers = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(
+            @Value("${app.password-hashing.pool-size:0}") int poolSize,
+            @Value("${app.password-hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${app.password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+
+        this.queueWaitTimer = Timer.builder("password.hash.queue.wait")
+                .description("Time hashing work waits for a pool thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("Hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        for (String algorithm : new String[] {"Argon2id", "BCrypt", "unknown"}) {
+            hashTimer(encodeTimers, "encode", algorithm);
+            hashTimer(matchesTimers, "matches", algorithm);
+        }
+        Gauge.builder("password.hash.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hash on the pool and wait for the result
+     * @param algorithm Hash algorithm, for the duration metric
+     */
+    public String encode(String algorithm, Supplier<String> hashing) {
+        return run(hashing, hashTimer(encodeTimers, "encode", algorithm));
+    }
+
+    /**
+     * Check a password on the pool and wait for the result
+     * @param algorithm Algorithm of the stored hash, for the duration metric
+     */
+    public boolean matches(String algorithm, Supplier<Boolean> hashing) {
+        return run(hashing, hashTimer(matchesTimers, "matches", algorithm));
+    }
+
+    /**
+     * Queue an encode without waiting for it, for callers that must not block
+     * @throws PasswordHashingUnavailableException if the pool and queue are full
+     */
+    public CompletableFuture<String> submitEncode(String algorithm, Supplier<String> hashing) {
+        return submit(hashing, hashTimer(encodeTimers, "encode", algorithm));
+    }
+
+    /**
+     * Queue a password check without waiting for it, for callers that must not block
+     * @throws PasswordHashingUnavailableException if the pool and queue are full
+     */
+    public CompletableFuture<Boolean> submitMatches(String algorithm, Supplier<Boolean> hashing) {
+        return submit(hashing, hashTimer(matchesTimers, "matches", algorithm));
+    }
+
+    /**
+     * Number of hashes that can run at the same time
+     */
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    private Timer hashTimer(Map<String, Timer> timers, String operation, String algorithm) {
+        Timer timer = timers.get(algorithm);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(algorithm, key -> Timer.builder("password.hash.duration")
+                .description("Time spent hashing on the pool")
+                .tag("operation", operation)
+                .tag("algorithm", algorithm)
+                .register(meterRegistry));
+    }
+
+    private <T> T run(Supplier<T> hashing, Timer hashTimer) {
+        Future<T> future;
+        try {
+            future = executor.submit(timed(hashing, hashTimer)::get);
+        } catch (RejectedExecutionException e) {
+            throw rejected();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> hashing, Timer hashTimer) {
+        try {
+            return CompletableFuture.supplyAsync(timed(hashing, hashTimer), executor);
+        } catch (RejectedExecutionException e) {
+            throw rejected();
+        }
+    }
+
+    private <T> Supplier<T> timed(Supplier<T> hashing, Timer hashTimer) {
+        long enqueuedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                return hashing.get();
+            } finally {
+                hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private PasswordHashingUnavailableException rejected() {
+        rejectedCounter.increment();
+        return new PasswordHashingUnavailableException("Password hashing capacity exceeded, please retry", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
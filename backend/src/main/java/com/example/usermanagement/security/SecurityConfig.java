@@ -1,6 +1,8 @@
 package com.example.usermanagement.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,7 +22,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
+// Servlet (MVC) stack only; the reactive build uses ReactiveSecurityConfig
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
@@ -31,24 +35,14 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        // Use hybrid encoder for seamless migration from BCrypt to Argon2id
-        return new HybridPasswordEncoder();
-        
-        // Pure Argon2id configuration (use after full migration)
-        // return Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
-        
-        // Alternative: Custom Argon2id configuration for higher security
-        // return new Argon2PasswordEncoder(16, 32, 1, 4096, 3);
-        // Parameters: saltLength, hashLength, parallelism, memory, iterations
-    }
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -62,8 +56,13 @@ public class SecurityConfig {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authz -> authz
+                // Streamed responses (user export) finish on an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/api/auth/**")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/h2-console/**")).permitAll()
+                // Scrape and liveness endpoints, only served on management.server.port (loopback by default)
+                .requestMatchers(new AntPathRequestMatcher("/actuator/health")).permitAll()
+                .requestMatchers(new AntPathRequestMatcher("/actuator/prometheus")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/api/users/**")).authenticated()
                 .anyRequest().authenticated()
             )
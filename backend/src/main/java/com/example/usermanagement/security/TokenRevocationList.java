@@ -0,0 +1,279 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.model.RevokedToken;
+import com.example.usermanagement.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked JWTs, stored in MongoDB and mirrored in memory so {@link JwtUtil#verify} can
+ * check every request without a round trip.
+ *
+ * - Token ids sit on a timing wheel keyed by the token's exp, one slot per
+ *   app.token-revocation.slot-seconds, each with a Bloom filter and the exact ids. A check
+ *   only looks in the slot its own exp falls in, and the Bloom filter turns away nearly
+ *   every token that was never revoked without touching the set
+ * - A slot is dropped whole once every token in it has expired; MongoDB drops the
+ *   documents through the TTL index on expiresAt
+ * - Revoking a user denies every token issued to them so far, for as long as one can live
+ * - Revocations made through other instances are read every app.token-revocation.sync-interval-ms
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    // 10 bits and 7 hashes per id keep Bloom false positives near 1% up to a slot's capacity
+    private static final int BITS_PER_ID = 10;
+    private static final int HASHES = 7;
+
+    private final RevokedTokenRepository repository;
+    private final long maxLifetimeMillis;
+    private final long slotMillis;
+    private final int slotBits;
+    private final long syncIntervalMillis;
+
+    // Slot for exp period p is at p % length; live tokens expire within maxLifetime, so two
+    // live periods never share an index. Checks read it without locking.
+    private final AtomicReferenceArray<Slot> wheel;
+
+    // Ids of tokens expiring past the wheel (issued with a longer jwt.expiration); normally empty
+    private final Map<String, Long> beyondWheel = new ConcurrentHashMap<>();
+
+    // Username to the time every token issued to them up to then was revoked; normally empty
+    private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+
+    // Serializes revocations, syncs and expiry
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private Instant lastSync;
+
+    public TokenRevocationList(RevokedTokenRepository repository, MeterRegistry meterRegistry,
+                               @Value("${jwt.expiration:86400}") long expirationSeconds,
+                               @Value("${app.token-revocation.slot-seconds:3600}") long slotSeconds,
+                               @Value("${app.token-revocation.slot-capacity:10000}") int slotCapacity,
+                               @Value("${app.token-revocation.sync-interval-ms:30000}") long syncIntervalMillis) {
+        this.repository = repository;
+        this.maxLifetimeMillis = expirationSeconds * 1000;
+        this.slotMillis = Math.max(1, slotSeconds) * 1000;
+        this.slotBits = Math.max(64, slotCapacity * BITS_PER_ID);
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.wheel = new AtomicReferenceArray<>((int) (maxLifetimeMillis / slotMillis) + 2);
+
+        Gauge.builder("token.revocations", this, TokenRevocationList::size)
+                .description("Revoked tokens and users held in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        lock.lock();
+        try {
+            Instant startedAt = Instant.now();
+            List<RevokedToken> revoked = repository.findByExpiresAtAfter(startedAt);
+            revoked.forEach(entry -> add(entry, startedAt.toEpochMilli()));
+            lastSync = startedAt;
+            logger.info("Loaded {} token revocations", revoked.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the token has been revoked. Takes no lock: normally one slot read and a few
+     * Bloom filter bits, with the exact set consulted only on a Bloom filter hit.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        String tokenId = token.getTokenId();
+        if (tokenId != null) {
+            long period = token.getExpiresAtMillis() / slotMillis;
+            Slot slot = wheel.get(index(period));
+            if (slot != null && slot.period == period && slot.contains(tokenId)) {
+                return true;
+            }
+            if (!beyondWheel.isEmpty() && beyondWheel.containsKey(tokenId)) {
+                return true;
+            }
+        }
+        if (!userCutoffs.isEmpty() && token.getUsername() != null) {
+            Long cutoff = userCutoffs.get(token.getUsername());
+            return cutoff != null && token.getIssuedAtMillis() <= cutoff;
+        }
+        return false;
+    }
+
+    /**
+     * Revoke one token until it expires, e.g. on logout
+     * @throws IllegalArgumentException if the token has no jti (issued before tokens carried one)
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.getTokenId() == null) {
+            throw new IllegalArgumentException("Token has no id and cannot be revoked on its own");
+        }
+        save(new RevokedToken(token.getTokenId(), token.getUsername(),
+                Instant.ofEpochMilli(token.getExpiresAtMillis()), Instant.now()));
+    }
+
+    /**
+     * Revoke every token issued to the user so far, e.g. when the account is disabled.
+     * Token iat is in whole seconds, so a token issued in the same second is revoked too.
+     */
+    public void revokeUser(String username) {
+        Instant now = Instant.now();
+        save(new RevokedToken(RevokedToken.USER_PREFIX + username, username, now.plusMillis(maxLifetimeMillis), now));
+    }
+
+    /**
+     * Pick up revocations made through other instances and drop expired slots
+     */
+    @Scheduled(fixedDelayString = "${app.token-revocation.sync-interval-ms:30000}",
+               initialDelayString = "${app.token-revocation.sync-interval-ms:30000}")
+    public void sync() {
+        lock.lock();
+        try {
+            Instant startedAt = Instant.now();
+            // Overlap the previous sync, so an entry saved while it ran (or stamped by a slightly
+            // slow clock) is not missed; adding an entry twice is harmless
+            List<RevokedToken> revoked = repository.findByRevokedAtAfter(lastSync.minusMillis(syncIntervalMillis));
+            long now = startedAt.toEpochMilli();
+            revoked.forEach(entry -> add(entry, now));
+            lastSync = startedAt;
+            expire(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = beyondWheel.size() + userCutoffs.size();
+        for (int i = 0; i < wheel.length(); i++) {
+            Slot slot = wheel.get(i);
+            if (slot != null) {
+                size += slot.ids.size();
+            }
+        }
+        return size;
+    }
+
+    private void save(RevokedToken revoked) {
+        repository.save(revoked);
+        lock.lock();
+        try {
+            add(revoked, System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds lock
+    private void add(RevokedToken revoked, long now) {
+        long expiresAt = revoked.getExpiresAt().toEpochMilli();
+        if (expiresAt <= now) {
+            return;
+        }
+        if (revoked.isUserRevocation()) {
+            userCutoffs.merge(revoked.getUsername(), revoked.getRevokedAt().toEpochMilli(), Math::max);
+            return;
+        }
+
+        long period = expiresAt / slotMillis;
+        if (period - now / slotMillis >= wheel.length()) {
+            beyondWheel.put(revoked.getId(), expiresAt);
+            return;
+        }
+        int index = index(period);
+        Slot slot = wheel.get(index);
+        if (slot == null || slot.period != period) {
+            // Anything the slot held was for a period that has already ended
+            slot = new Slot(period, slotBits);
+            wheel.set(index, slot);
+        }
+        slot.add(revoked.getId());
+    }
+
+    // Caller holds lock
+    private void expire(long now) {
+        long currentPeriod = now / slotMillis;
+        for (int i = 0; i < wheel.length(); i++) {
+            Slot slot = wheel.get(i);
+            if (slot != null && slot.period < currentPeriod) {
+                wheel.set(i, null);
+            }
+        }
+        beyondWheel.values().removeIf(expiresAt -> expiresAt <= now);
+        userCutoffs.values().removeIf(revokedAt -> revokedAt + maxLifetimeMillis <= now);
+    }
+
+    private int index(long period) {
+        return (int) Math.floorMod(period, (long) wheel.length());
+    }
+
+    // 64-bit FNV-1a with a final avalanche, so both 32-bit halves can serve as independent hashes
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // Ids of tokens whose exp falls in one period, behind a Bloom filter
+    private static final class Slot {
+        final long period;
+        final int bitCount;
+        final AtomicLongArray bits;
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        Slot(long period, int bitCount) {
+            this.period = period;
+            this.bitCount = bitCount;
+            this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+        }
+
+        void add(String id) {
+            ids.add(id);
+            long hash = hash(id);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = bit(hash, i);
+                bits.accumulateAndGet(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+            }
+        }
+
+        boolean contains(String id) {
+            long hash = hash(id);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = bit(hash, i);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return ids.contains(id);
+        }
+
+        // Double hashing: the i-th probe is low + i * high
+        private int bit(long hash, int i) {
+            int combined = (int) hash + i * (int) (hash >>> 32);
+            return (combined & Integer.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * UserDetails backed by the User document loaded during authentication.
+ *
+ * The authenticated principal carries this object, so the login flow can issue the
+ * token and check for a password upgrade without reading the user again. It does not
+ * implement CredentialsContainer on purpose: the stored hash must survive
+ * credential erasure for the conditional migration update.
+ */
+public class UserPrincipal implements UserDetails {
+
+    private final User user;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public UserPrincipal(User user) {
+        this.user = user;
+        this.authorities = Collections.singletonList(
+            new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase()));
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return user.getPassword();
+    }
+
+    @Override
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
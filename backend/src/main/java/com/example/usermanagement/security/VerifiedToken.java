@@ -0,0 +1,47 @@
+package com.example.usermanagement.security;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked
+ */
+public class VerifiedToken {
+
+    private final String username;
+    private final String role;
+    private final long expiresAtMillis;
+    // jti; null for tokens issued before tokens carried one
+    private final String tokenId;
+    // iat, which JWTs hold in whole seconds; 0 if absent
+    private final long issuedAtMillis;
+
+    public VerifiedToken(String username, String role, long expiresAtMillis, String tokenId, long issuedAtMillis) {
+        this.username = username;
+        this.role = role;
+        this.expiresAtMillis = expiresAtMillis;
+        this.tokenId = tokenId;
+        this.issuedAtMillis = issuedAtMillis;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
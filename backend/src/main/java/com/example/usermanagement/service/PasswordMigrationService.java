@@ -3,12 +3,27 @@ package com.example.usermanagement.service;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.repository.UserRepository;
 import com.example.usermanagement.security.HybridPasswordEncoder;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service for handling password migration from BCrypt to Argon2id
@@ -24,33 +39,89 @@ public class PasswordMigrationService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserLookupCache userLookupCache;
+    
+    // Usernames with a rehash queued or running; concurrent logins coalesce onto it
+    private final Set<String> upgradesInFlight = ConcurrentHashMap.newKeySet();
+    
+    private final ThreadPoolExecutor upgradeExecutor;
+    
+    @Value("${app.password-stats.cache-ttl-ms:30000}")
+    private long statisticsCacheTtlMillis;
+    
+    private volatile CachedStatistics cachedStatistics;
+    
+    // One reload at a time: callers arriving while the aggregation runs wait for its result instead
+    // of running their own. A lock rather than synchronized, so waiting virtual threads do not pin.
+    private final ReentrantLock statisticsRefreshLock = new ReentrantLock();
+    
+    public PasswordMigrationService(
+            @Value("${app.password-migration.queue-capacity:1000}") int queueCapacity,
+            Environment environment) {
+        // The worker mostly waits on the hashing pool and MongoDB, so it can be virtual when enabled
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("password-migration-").getVirtualThreadFactory()
+                : platformThreadFactory();
+        this.upgradeExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+    }
+    
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-migration-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
     /**
-     * Check if a user's password needs to be upgraded and perform the upgrade
-     * This should be called after successful authentication
+     * Check if a user's password needs to be upgraded and, if so, re-encode it in the background.
+     * This should be called after successful authentication and returns immediately.
      * 
-     * @param username The username of the authenticated user
+     * @param user The authenticated user, holding the stored password hash
      * @param rawPassword The raw password that was used for authentication
      */
-    @Transactional
-    public void upgradePasswordIfNeeded(String username, String rawPassword) {
+    public void upgradePasswordIfNeeded(User user, String rawPassword) {
+        String currentPassword = user.getPassword();
+        if (currentPassword == null || !passwordEncoder.upgradeEncoding(currentPassword)) {
+            return;
+        }
+        
+        String username = user.getUsername();
+        if (!upgradesInFlight.add(username)) {
+            logger.debug("Password upgrade already in progress for user: {}", username);
+            return;
+        }
+        
         try {
-            User user = userRepository.findByUsername(username).orElse(null);
-            if (user == null) {
-                logger.warn("User not found for password upgrade: {}", username);
-                return;
-            }
+            upgradeExecutor.execute(() -> {
+                try {
+                    upgradePassword(user.getId(), username, currentPassword, rawPassword);
+                } finally {
+                    upgradesInFlight.remove(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            upgradesInFlight.remove(username);
+            logger.warn("Password upgrade queue full, will retry on next login for user: {}", username);
+        }
+    }
+    
+    private void upgradePassword(String id, String username, String currentPassword, String rawPassword) {
+        try {
+            logger.info("Upgrading password encoding for user: {} from {} to Argon2id", 
+                username, getPasswordAlgorithm(currentPassword));
             
-            // Check if password needs upgrading
-            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
-                logger.info("Upgrading password encoding for user: {} from {} to Argon2id", 
-                    username, getPasswordAlgorithm(user.getPassword()));
-                
-                // Re-encode password with Argon2id
-                String newEncodedPassword = passwordEncoder.encode(rawPassword);
-                user.setPassword(newEncodedPassword);
-                userRepository.save(user);
-                
+            // Re-encode password with Argon2id, then write it only if the stored hash is unchanged
+            String newEncodedPassword = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordIfUnchanged(id, currentPassword, newEncodedPassword)) {
+                // The cached user still holds the old hash
+                userLookupCache.invalidate(id);
                 logger.info("Password successfully upgraded for user: {}", username);
+            } else {
+                logger.info("Password changed before upgrade completed, skipping user: {}", username);
             }
         } catch (Exception e) {
             logger.error("Failed to upgrade password for user: {}", username, e);
@@ -58,30 +129,44 @@ public class PasswordMigrationService {
         }
     }
     
+    @PreDestroy
+    public void shutdown() {
+        upgradeExecutor.shutdown();
+    }
+    
     /**
-     * Get statistics about password algorithms in use
+     * Get statistics about password algorithms in use. Counted by a MongoDB aggregation
+     * and cached for app.password-stats.cache-ttl-ms; on expiry only one caller reruns it.
      * 
      * @return Statistics object with algorithm counts
      */
     public PasswordStatistics getPasswordStatistics() {
-        PasswordStatistics stats = new PasswordStatistics();
+        CachedStatistics cached = cachedStatistics;
+        if (cached != null && System.currentTimeMillis() < cached.expiresAtMillis) {
+            return cached.statistics;
+        }
         
-        for (User user : userRepository.findAll()) {
-            String algorithm = getPasswordAlgorithm(user.getPassword());
-            switch (algorithm) {
-                case "Argon2id":
-                    stats.argon2idCount++;
-                    break;
-                case "BCrypt":
-                    stats.bcryptCount++;
-                    break;
-                default:
-                    stats.unknownCount++;
-                    break;
+        statisticsRefreshLock.lock();
+        try {
+            // Reloaded by another caller while this one waited
+            cached = cachedStatistics;
+            long now = System.currentTimeMillis();
+            if (cached != null && now < cached.expiresAtMillis) {
+                return cached.statistics;
             }
+            
+            Map<String, Long> counts = userRepository.countPasswordsByAlgorithm();
+            PasswordStatistics stats = new PasswordStatistics();
+            stats.argon2idCount = counts.getOrDefault("Argon2id", 0L);
+            stats.bcryptCount = counts.getOrDefault("BCrypt", 0L);
+            stats.unknownCount = counts.getOrDefault("unknown", 0L);
+            stats.calculateTotal();
+            
+            cachedStatistics = new CachedStatistics(stats, now + statisticsCacheTtlMillis);
+            return stats;
+        } finally {
+            statisticsRefreshLock.unlock();
         }
-        
-        return stats;
     }
     
     private String getPasswordAlgorithm(String encodedPassword) {
@@ -95,10 +180,10 @@ public class PasswordMigrationService {
      * Statistics about password algorithms in use
      */
     public static class PasswordStatistics {
-        public int argon2idCount = 0;
-        public int bcryptCount = 0;
-        public int unknownCount = 0;
-        public int totalCount = 0;
+        public long argon2idCount = 0;
+        public long bcryptCount = 0;
+        public long unknownCount = 0;
+        public long totalCount = 0;
         
         public void calculateTotal() {
             totalCount = argon2idCount + bcryptCount + unknownCount;
@@ -120,4 +205,14 @@ public class PasswordMigrationService {
                 bcryptCount, getBcryptPercentage(), unknownCount);
         }
     }
+    
+    private static class CachedStatistics {
+        final PasswordStatistics statistics;
+        final long expiresAtMillis;
+        
+        CachedStatistics(PasswordStatistics statistics, long expiresAtMillis) {
+            this.statistics = statistics;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process top-K of the most recently created users, overall and per role.
+ *
+ * - Each list holds at most {@link #CAPACITY} users, newest first
+ * - Lists are loaded lazily with an index-backed sort(createdAt desc).limit(K) query
+ *   and hold {@link UserSummary} read models, so no password hash is kept in memory
+ * - UserService keeps them current on create/update/delete, so repeated
+ *   dashboard loads are served without touching MongoDB
+ *
+ * Writes made by other application instances are not seen until the next update
+ * on this instance clears the lists.
+ */
+@Component
+public class RecentUsersCache {
+
+    public static final int CAPACITY = 50;
+
+    private static final String ALL_ROLES = "";
+
+    // Newest first, nulls last, id as tiebreaker (same order as the MongoDB query)
+    private static final Comparator<UserSummary> NEWEST_FIRST = Comparator
+            .comparing(UserSummary::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(UserSummary::getId, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .reversed();
+
+    private final UserRepository repository;
+    private final Map<String, TopUsers> lists = new HashMap<>();
+
+    // Guards lists; load() queries MongoDB while holding it, which a monitor would do with the carrier pinned
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public RecentUsersCache(UserRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Get the most recently created users
+     * @param role Role to filter on, or null for all users
+     * @param limit Number of users wanted, at most {@link #CAPACITY}
+     */
+    public List<UserSummary> getRecentUsers(String role, int limit) {
+        lock.lock();
+        try {
+            String key = role == null ? ALL_ROLES : role;
+            TopUsers top = lists.get(key);
+
+            // A list shrunk by deletes can no longer answer larger limits unless it already holds every user
+            if (top == null || (top.users.size() < limit && !top.complete)) {
+                top = load(role);
+                lists.put(key, top);
+            }
+
+            return new ArrayList<>(top.users.subList(0, Math.min(limit, top.users.size())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onUserCreated(User created) {
+        UserSummary user = UserSummary.of(created);
+        lock.lock();
+        try {
+            insert(lists.get(ALL_ROLES), user);
+            if (user.getRole() != null) {
+                insert(lists.get(user.getRole()), user);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onUserDeleted(String id) {
+        lock.lock();
+        try {
+            for (TopUsers top : lists.values()) {
+                top.users.removeIf(user -> id.equals(user.getId()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            lists.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TopUsers load(String role) {
+        PageRequest firstK = PageRequest.of(0, CAPACITY);
+        List<UserSummary> users = role == null
+                ? repository.findByOrderByCreatedAtDesc(firstK)
+                : repository.findByRoleOrderByCreatedAtDesc(role, firstK);
+        return new TopUsers(new ArrayList<>(users), users.size() < CAPACITY);
+    }
+
+    private static void insert(TopUsers top, UserSummary user) {
+        if (top == null) {
+            return;
+        }
+        // Loaded by a read between the save and this call, so already listed
+        for (UserSummary listed : top.users) {
+            if (Objects.equals(listed.getId(), user.getId())) {
+                return;
+            }
+        }
+
+        int index = 0;
+        while (index < top.users.size() && NEWEST_FIRST.compare(top.users.get(index), user) < 0) {
+            index++;
+        }
+        top.users.add(index, user);
+
+        if (top.users.size() > CAPACITY) {
+            top.users.remove(top.users.size() - 1);
+            top.complete = false;
+        }
+    }
+
+    private static class TopUsers {
+        final List<UserSummary> users;
+        // True when the list holds every matching user, not just the newest K
+        boolean complete;
+
+        TopUsers(List<UserSummary> users, boolean complete) {
+            this.users = users;
+            this.complete = complete;
+        }
+    }
+}
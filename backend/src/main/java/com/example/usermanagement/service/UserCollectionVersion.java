@@ -0,0 +1,49 @@
+package com.example.usermanagement.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter that changes whenever the users collection may have, used to build ETags
+ * for the list, recent and stats responses.
+ *
+ * - Every user write bumps it after the write and the cache updates that go with it,
+ *   so a read that sees the old version can only have been given older or newer data,
+ *   never a response that outlives its ETag
+ * - ETags carry this instance's start time, so one issued by another instance or
+ *   before a restart never matches
+ * - Writes made by other instances are not seen here, so the version is also bumped
+ *   every app.user-etag.refresh-interval-ms; that bounds how long a 304 can be stale
+ */
+@Component
+public class UserCollectionVersion {
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-etag.refresh-interval-ms:60000}",
+               initialDelayString = "${app.user-etag.refresh-interval-ms:60000}")
+    public void refresh() {
+        bump();
+    }
+
+    /**
+     * Weak ETag for a response built from the collection at the current version. Read it
+     * before querying, so a write racing with the query changes the next ETag.
+     * @param parts The endpoint and every request parameter that shapes the response
+     */
+    public String etag(Object... parts) {
+        return "W/\"" + instance + "-" + version.get() + "-" + Integer.toHexString(Arrays.deepHashCode(parts)) + "\"";
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.UserSortField;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the user listing. It records the sort that produced
+ * the page and the (sort field value, id) pair of the last user returned, so the
+ * next page can resume with a range query instead of skipping documents.
+ */
+public class UserCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final UserSortField sortField;
+    private final Sort.Direction direction;
+    private final Object lastValue;
+    private final String lastId;
+
+    public UserCursor(UserSortField sortField, Sort.Direction direction, Object lastValue, String lastId) {
+        this.sortField = sortField;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Build the cursor pointing just past the given user
+     */
+    public static UserCursor after(UserSummary user, UserSortField sortField, Sort.Direction direction) {
+        return new UserCursor(sortField, direction, getFieldValue(user, sortField), user.getId());
+    }
+
+    public UserSortField getSortField() {
+        return sortField;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public String encode() {
+        String value = lastValue == null ? "0" : "1" + lastValue;
+        return part(sortField.name()) + "." + part(direction.name()) + "." + part(value) + "." + part(lastId);
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static UserCursor decode(String token) {
+        try {
+            String[] parts = token.split("\\.", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            UserSortField sortField = UserSortField.valueOf(unpart(parts[0]));
+            Sort.Direction direction = Sort.Direction.valueOf(unpart(parts[1]));
+            String value = unpart(parts[2]);
+            String lastId = unpart(parts[3]);
+            if (value.isEmpty() || lastId.isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Object lastValue = value.charAt(0) == '1' ? parseValue(sortField, value.substring(1)) : null;
+            return new UserCursor(sortField, direction, lastValue, lastId);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Object getFieldValue(UserSummary user, UserSortField sortField) {
+        switch (sortField) {
+            case ID:
+                return user.getId();
+            case NAME:
+                return user.getName();
+            case EMAIL:
+                return user.getEmail();
+            case ROLE:
+                return user.getRole();
+            case CREATED_AT:
+                return user.getCreatedAt();
+            case UPDATED_AT:
+                return user.getUpdatedAt();
+            default:
+                return null;
+        }
+    }
+
+    private static Object parseValue(UserSortField sortField, String value) {
+        switch (sortField) {
+            case CREATED_AT:
+            case UPDATED_AT:
+                return LocalDateTime.parse(value);
+            default:
+                return value;
+        }
+    }
+
+    private static String part(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String unpart(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+}
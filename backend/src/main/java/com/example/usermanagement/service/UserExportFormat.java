@@ -0,0 +1,104 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.MediaType;
+
+/**
+ * Line formats for the user export. Each user becomes one self-contained line, so an
+ * export can be written row by row from a cursor. The password hash is never exported.
+ */
+public enum UserExportFormat {
+    CSV("csv", new MediaType("text", "csv")) {
+        @Override
+        public String header() {
+            return "id,name,email,username,role,createdAt,updatedAt\n";
+        }
+
+        @Override
+        public String line(User user) {
+            return csv(user.getId()) + ',' + csv(user.getName()) + ',' + csv(user.getEmail()) + ','
+                    + csv(user.getUsername()) + ',' + csv(user.getRole()) + ','
+                    + csv(user.getCreatedAt()) + ',' + csv(user.getUpdatedAt()) + '\n';
+        }
+    },
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON) {
+        @Override
+        public String header() {
+            return "";
+        }
+
+        @Override
+        public String line(User user) {
+            return "{\"id\":" + json(user.getId()) + ",\"name\":" + json(user.getName())
+                    + ",\"email\":" + json(user.getEmail()) + ",\"username\":" + json(user.getUsername())
+                    + ",\"role\":" + json(user.getRole()) + ",\"createdAt\":" + json(user.getCreatedAt())
+                    + ",\"updatedAt\":" + json(user.getUpdatedAt()) + "}\n";
+        }
+    };
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    UserExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Text written once before the first user (empty if the format has none)
+     */
+    public abstract String header();
+
+    /**
+     * One user as a single line, including the trailing newline
+     */
+    public abstract String line(User user);
+
+    /**
+     * Resolve a format request parameter
+     * @param value "csv" or "ndjson", case-insensitive; null or empty means csv
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static UserExportFormat fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return CSV;
+        }
+        for (UserExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or ndjson)");
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Keep spreadsheet apps from evaluating cells as formulas
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(value.toString())) + '"';
+    }
+}
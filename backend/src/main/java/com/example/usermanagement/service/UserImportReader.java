@@ -0,0 +1,189 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads users one at a time from an import body, either a JSON array of user objects
+ * or CSV with a header row (name, email, username, password and optionally role).
+ * Only the current row is held in memory.
+ */
+public abstract class UserImportReader {
+
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    /**
+     * Open a reader for the request body
+     * @param contentType application/json or text/csv
+     * @throws IllegalArgumentException for any other content type
+     */
+    public static UserImportReader open(MediaType contentType, InputStream body, ObjectMapper objectMapper) throws IOException {
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return new JsonArrayReader(objectMapper, body);
+        }
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new CsvReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType + " (use application/json or text/csv)");
+    }
+
+    /**
+     * @return The next user, or null once the input is exhausted
+     * @throws IllegalArgumentException if the input is malformed at this row
+     */
+    public abstract User next() throws IOException;
+
+    private static class JsonArrayReader extends UserImportReader {
+        private final ObjectMapper objectMapper;
+        private final JsonParser parser;
+
+        JsonArrayReader(ObjectMapper objectMapper, InputStream body) throws IOException {
+            this.objectMapper = objectMapper;
+            this.parser = objectMapper.getFactory().createParser(body);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of users");
+            }
+        }
+
+        @Override
+        public User next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a user object but found " + token);
+            }
+            return objectMapper.readValue(parser, User.class);
+        }
+    }
+
+    private static class CsvReader extends UserImportReader {
+        private static final int BYTE_ORDER_MARK = '\uFEFF';
+
+        private final Reader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private int pushedBack = -2;
+
+        CsvReader(Reader reader) throws IOException {
+            this.reader = reader;
+            // Excel and other Windows tools start UTF-8 CSV with a byte order mark
+            int first = read();
+            if (first != BYTE_ORDER_MARK) {
+                pushedBack = first;
+            }
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV import is empty");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("name", "email", "username", "password")) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("CSV header is missing the " + required + " column");
+                }
+            }
+        }
+
+        @Override
+        public User next() throws IOException {
+            List<String> record = readRecord();
+            // Skip blank lines between rows
+            while (record != null && record.size() == 1 && record.get(0).isEmpty()) {
+                record = readRecord();
+            }
+            if (record == null) {
+                return null;
+            }
+
+            User user = new User();
+            user.setName(column(record, "name"));
+            user.setEmail(column(record, "email"));
+            user.setUsername(column(record, "username"));
+            user.setPassword(column(record, "password"));
+            String role = column(record, "role");
+            if (role != null && !role.isEmpty()) {
+                user.setRole(role);
+            }
+            return user;
+        }
+
+        private String column(List<String> record, String name) {
+            Integer index = columns.get(name);
+            return index == null || index >= record.size() ? null : record.get(index);
+        }
+
+        // One RFC 4180 record; quoted fields may contain commas, quotes ("") and line breaks
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted CSV field");
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            pushedBack = following;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pushedBack = following;
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
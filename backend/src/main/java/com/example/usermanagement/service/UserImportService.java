@@ -0,0 +1,257 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.exception.PasswordHashingUnavailableException;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.security.HybridPasswordEncoder;
+import com.example.usermanagement.security.PasswordHashingExecutor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk user import from a streamed JSON array or CSV body.
+ *
+ * - Rows are read one at a time and validated with the same constraints as POST /api/users
+ * - Passwords are hashed in parallel on the {@link PasswordHashingExecutor} pool, with at
+ *   most app.user-import.hash-concurrency hashes in flight so logins keep some of the pool
+ * - Valid rows are inserted app.user-import.batch-size at a time with an unordered bulkWrite
+ * - Every row gets a result: created, invalid, or conflict (duplicate username/email,
+ *   in the database or earlier in the same import)
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    // How long to back off when login traffic has filled the hashing queue
+    private static final long HASH_RETRY_MILLIS = 50;
+
+    private final UserRepository repository;
+    private final RecentUsersCache recentUsersCache;
+    private final UserStatsCounter userStatsCounter;
+    private final UserSuggestIndex userSuggestIndex;
+    private final UserCollectionVersion collectionVersion;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int hashConcurrency;
+
+    // The application's encoder, hashing on the calling thread, which here is always a hashing pool thread
+    private final HybridPasswordEncoder encoder;
+
+    public UserImportService(UserRepository repository, RecentUsersCache recentUsersCache,
+                             UserStatsCounter userStatsCounter, UserSuggestIndex userSuggestIndex,
+                             UserCollectionVersion collectionVersion,
+                             PasswordHashingExecutor hashingExecutor, HybridPasswordEncoder passwordEncoder,
+                             Validator validator, ObjectMapper objectMapper,
+                             @Value("${app.user-import.batch-size:500}") int batchSize,
+                             @Value("${app.user-import.hash-concurrency:0}") int hashConcurrency) {
+        this.repository = repository;
+        this.recentUsersCache = recentUsersCache;
+        this.userStatsCounter = userStatsCounter;
+        this.userSuggestIndex = userSuggestIndex;
+        this.collectionVersion = collectionVersion;
+        this.hashingExecutor = hashingExecutor;
+        this.encoder = passwordEncoder.onCallingThread();
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.hashConcurrency = hashConcurrency > 0 ? hashConcurrency : Math.max(1, hashingExecutor.getPoolSize() / 2);
+    }
+
+    /**
+     * Import every user in the body
+     * @param contentType application/json (array of users) or text/csv
+     * @return total/created/failed counts and one result per row; an "error" entry means the
+     *         input was malformed part way and the rows after it were not read
+     * @throws IllegalArgumentException if the content type or the start of the body is not valid
+     */
+    public Map<String, Object> importUsers(MediaType contentType, InputStream body) throws IOException {
+        UserImportReader reader = UserImportReader.open(contentType, body, objectMapper);
+
+        ImportRun run = new ImportRun();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        String error = null;
+        while (true) {
+            User user;
+            try {
+                user = reader.next();
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                error = "Malformed input at row " + (run.rows + 1) + ": " + e.getMessage();
+                break;
+            }
+            if (user == null) {
+                break;
+            }
+
+            int row = ++run.rows;
+            Map<String, Object> result = run.check(row, user);
+            if (result != null) {
+                run.results.add(result);
+                continue;
+            }
+            batch.add(new PendingRow(row, user));
+            if (batch.size() == batchSize) {
+                insertBatch(batch, run);
+                batch.clear();
+            }
+        }
+        insertBatch(batch, run);
+        // Rejected rows were recorded as they were read, inserted ones per batch
+        run.results.sort(Comparator.comparingInt(result -> (Integer) result.get("row")));
+
+        logger.info("User import finished: {} rows, {} created", run.rows, run.created);
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", run.rows);
+        response.put("created", run.created);
+        response.put("failed", run.rows - run.created);
+        response.put("results", run.results);
+        if (error != null) {
+            response.put("error", error);
+        }
+        return response;
+    }
+
+    private void insertBatch(List<PendingRow> batch, ImportRun run) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        hashPasswords(batch);
+
+        List<User> users = new ArrayList<>(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingRow pending : batch) {
+            // Ids are assigned here so each row's result can report it
+            pending.user.setId(new ObjectId().toHexString());
+            pending.user.setCreatedAt(now);
+            pending.user.setUpdatedAt(now);
+            users.add(pending.user);
+        }
+
+        Map<Integer, String> failures = repository.insertUnordered(users);
+        for (int i = 0; i < batch.size(); i++) {
+            PendingRow pending = batch.get(i);
+            String failure = failures.get(i);
+            if (failure == null) {
+                run.created++;
+                userStatsCounter.onUserCreated(pending.user.getRole());
+                userSuggestIndex.onUserSaved(null, pending.user);
+                run.results.add(result(pending.row, pending.user, "created", "id", pending.user.getId()));
+            } else {
+                run.results.add(result(pending.row, pending.user, "conflict", "message", failure));
+            }
+        }
+        if (failures.size() < batch.size()) {
+            recentUsersCache.clear();
+            collectionVersion.bump();
+        }
+    }
+
+    // Replace each raw password with its Argon2id hash, hashConcurrency at a time
+    private void hashPasswords(List<PendingRow> batch) {
+        Semaphore inFlight = new Semaphore(hashConcurrency);
+        List<CompletableFuture<String>> hashes = new ArrayList<>(batch.size());
+        try {
+            for (PendingRow pending : batch) {
+                inFlight.acquire();
+                CompletableFuture<String> hash = submitEncode(pending.user.getPassword());
+                hash.whenComplete((encoded, failure) -> inFlight.release());
+                hashes.add(hash);
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).user.setPassword(hashes.get(i).join());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // A full queue means logins are using the pool; wait for room rather than failing the import
+    private CompletableFuture<String> submitEncode(String rawPassword) throws InterruptedException {
+        while (true) {
+            try {
+                return hashingExecutor.submitEncode("Argon2id", () -> encoder.encode(rawPassword));
+            } catch (PasswordHashingUnavailableException e) {
+                Thread.sleep(HASH_RETRY_MILLIS);
+            }
+        }
+    }
+
+    private static Map<String, Object> result(int row, User user, String status, String key, Object value) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row", row);
+        result.put("username", user.getUsername());
+        result.put("status", status);
+        result.put(key, value);
+        return result;
+    }
+
+    private class ImportRun {
+        int rows;
+        int created;
+        final List<Map<String, Object>> results = new ArrayList<>();
+        // Unique keys seen so far in this import, so in-file duplicates fail without a round trip
+        final Set<String> usernames = new HashSet<>();
+        final Set<String> emails = new HashSet<>();
+
+        // Returns the row's failure result, or null if it can be inserted
+        Map<String, Object> check(int row, User user) {
+            Set<ConstraintViolation<User>> violations = validator.validate(user, User.Create.class);
+            if (!violations.isEmpty()) {
+                Map<String, String> errors = new HashMap<>();
+                for (ConstraintViolation<User> violation : violations) {
+                    errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+                }
+                return result(row, user, "invalid", "errors", errors);
+            }
+            if (!usernames.add(user.getUsername())) {
+                return result(row, user, "conflict", "message", "Username appears earlier in this import");
+            }
+            if (!emails.add(user.getEmail())) {
+                return result(row, user, "conflict", "message", "Email appears earlier in this import");
+            }
+            return null;
+        }
+    }
+
+    private static class PendingRow {
+        final int row;
+        final User user;
+
+        PendingRow(int row, User user) {
+            this.row = row;
+            this.user = user;
+        }
+    }
+}
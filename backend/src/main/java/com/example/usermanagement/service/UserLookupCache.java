@@ -0,0 +1,201 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of single users, looked up by id or by username.
+ *
+ * - Bounded by app.user-cache.max-size (least recently used first out) and
+ *   app.user-cache.ttl-ms since the user was loaded
+ * - Misses are not cached, so a newly created user is found on the next lookup
+ * - UserService and PasswordMigrationService call {@link #invalidate(String)}
+ *   after every write to a user
+ * - Hits, misses, evictions and size are published as user.cache.* meters
+ *
+ * Writes made by other application instances are seen once the entry expires.
+ */
+@Component
+public class UserLookupCache {
+
+    private final UserRepository repository;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // Access-ordered, keyed by user id
+    private final LinkedHashMap<String, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> idByUsername = new HashMap<>();
+
+    // Bumped by every invalidation; a load that raced one is returned but not stored
+    private long generation;
+
+    // Guards the maps; MongoDB is queried outside it
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserLookupCache(UserRepository repository, MeterRegistry meterRegistry,
+                           @Value("${app.user-cache.max-size:10000}") int maxSize,
+                           @Value("${app.user-cache.ttl-ms:60000}") long ttlMillis) {
+        this.repository = repository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+
+        FunctionCounter.builder("user.cache.gets", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.gets", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.evictions", evictions, AtomicLong::get)
+                .description("Users dropped for size or age")
+                .register(meterRegistry);
+        Gauge.builder("user.cache.size", this, UserLookupCache::size)
+                .register(meterRegistry);
+    }
+
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return lookup(id, () -> repository.findById(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        String id;
+        lock.lock();
+        try {
+            id = idByUsername.get(username);
+        } finally {
+            lock.unlock();
+        }
+        return lookup(id, () -> repository.findByUsername(username));
+    }
+
+    /**
+     * Drop a user after it was updated, deleted or had its password changed
+     * @param id Id of the user that was written
+     */
+    public void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            generation++;
+            Entry entry = byId.remove(id);
+            if (entry != null) {
+                idByUsername.remove(entry.user.getUsername(), id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            generation++;
+            byId.clear();
+            idByUsername.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<User> lookup(String id, Supplier<Optional<User>> loader) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            Entry entry = id == null ? null : byId.get(id);
+            if (entry != null) {
+                if (System.currentTimeMillis() < entry.expiresAtMillis) {
+                    hits.incrementAndGet();
+                    return Optional.of(entry.user);
+                }
+                remove(id, entry);
+                evictions.incrementAndGet();
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.incrementAndGet();
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> store(user, loadGeneration));
+        return loaded;
+    }
+
+    private void store(User user, long loadGeneration) {
+        if (user.getId() == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation != loadGeneration) {
+                return;
+            }
+            Entry previous = byId.put(user.getId(), new Entry(user, System.currentTimeMillis() + ttlMillis));
+            if (previous != null) {
+                idByUsername.remove(previous.user.getUsername(), user.getId());
+            }
+            if (user.getUsername() != null) {
+                idByUsername.put(user.getUsername(), user.getId());
+            }
+
+            Iterator<Map.Entry<String, Entry>> eldest = byId.entrySet().iterator();
+            while (byId.size() > maxSize && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                eldest.remove();
+                idByUsername.remove(evicted.getValue().user.getUsername(), evicted.getKey());
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String id, Entry entry) {
+        byId.remove(id);
+        idByUsername.remove(entry.user.getUsername(), id);
+    }
+
+    private static class Entry {
+        final User user;
+        final long expiresAtMillis;
+
+        Entry(User user, long expiresAtMillis) {
+            this.user = user;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.usermanagement.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Total users per role filter for the paged list, so deep pages do not recount the
+ * collection on every request.
+ *
+ * - A total is kept with the {@link UserCollectionVersion} it was counted at and used only
+ *   while the version is unchanged; every write, and the periodic refresh, moves it on
+ * - Read the version before querying, so a count racing with a write is filed under the
+ *   old version and never served
+ */
+@Component
+public class UserPageTotals {
+
+    // Role filters come from a request parameter, so only this many are remembered
+    private static final int MAX_ROLES = 64;
+
+    private final UserCollectionVersion collectionVersion;
+    private final Map<String, Total> totals = new ConcurrentHashMap<>();
+
+    public UserPageTotals(UserCollectionVersion collectionVersion) {
+        this.collectionVersion = collectionVersion;
+    }
+
+    public long version() {
+        return collectionVersion.current();
+    }
+
+    /**
+     * @param role Role filter, or null for all users
+     * @return The total counted at this version, or null if it has to be counted
+     */
+    public Long get(String role, long version) {
+        Total total = totals.get(key(role));
+        return total != null && total.version == version ? total.count : null;
+    }
+
+    public void put(String role, long version, long count) {
+        String key = key(role);
+        if (totals.size() < MAX_ROLES || totals.containsKey(key)) {
+            totals.put(key, new Total(version, count));
+        }
+    }
+
+    private static String key(String role) {
+        return role == null ? "" : role;
+    }
+
+    private static final class Total {
+        final long version;
+        final long count;
+
+        Total(long version, long count) {
+            this.version = version;
+            this.count = count;
+        }
+    }
+}
@@ -1,26 +1,64 @@
 package com.example.usermanagement.service;
 
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.UserFilter;
+import com.example.usermanagement.repository.UserProjection;
 import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserRepositoryImpl;
+import com.example.usermanagement.repository.UserSortField;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.stream.Stream;
 
+// Every public method is timed as user.service{class, method, exception}
 @Service
+@Timed(value = "user.service", description = "UserService call duration")
 public class UserService {
 
+    static final int EXPORT_FLUSH_ROWS = 1000;
+
+    static final int MAX_SEARCH_LENGTH = 200;
+
     private final UserRepository repository;
+    private final RecentUsersCache recentUsersCache;
+    private final UserStatsCounter userStatsCounter;
+    private final UserLookupCache userLookupCache;
+    private final UserSuggestIndex userSuggestIndex;
+    private final UserCollectionVersion collectionVersion;
+    private final UserPageTotals pageTotals;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public UserService(UserRepository repository) {
+    public UserService(UserRepository repository, RecentUsersCache recentUsersCache, UserStatsCounter userStatsCounter,
+                       UserLookupCache userLookupCache, UserSuggestIndex userSuggestIndex,
+                       UserCollectionVersion collectionVersion, UserPageTotals pageTotals) {
         this.repository = repository;
+        this.recentUsersCache = recentUsersCache;
+        this.userStatsCounter = userStatsCounter;
+        this.userLookupCache = userLookupCache;
+        this.userSuggestIndex = userSuggestIndex;
+        this.collectionVersion = collectionVersion;
+        this.pageTotals = pageTotals;
     }
 
     public List<User> getAllUsers() {
@@ -30,33 +68,100 @@ public class UserService {
     public User createUser(User user) {
         // Hash password before saving
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return repository.save(user);
+        User savedUser = repository.save(user);
+        recentUsersCache.onUserCreated(savedUser);
+        userStatsCounter.onUserCreated(savedUser.getRole());
+        userSuggestIndex.onUserSaved(null, savedUser);
+        collectionVersion.bump();
+        return savedUser;
     }
 
     public Optional<User> getUserById(String id) {
-        return repository.findById(id);
+        return userLookupCache.findById(id);
     }
 
     public User updateUser(String id, User user) {
         user.setId(id);
         // Only hash password if it's being changed
         Optional<User> existingUser = repository.findById(id);
-        if (existingUser.isPresent()) {
-            String existingPassword = existingUser.get().getPassword();
-            if (!user.getPassword().equals(existingPassword)) {
-                // Password is being changed, hash it
-                user.setPassword(passwordEncoder.encode(user.getPassword()));
+        boolean keepPassword = user.getPassword() == null || user.getPassword().trim().isEmpty();
+        if (keepPassword) {
+            // Responses never carry the hash, so clients send a blank password to keep the current one
+            if (!existingUser.isPresent()) {
+                throw new IllegalArgumentException("Password is required");
             }
+            user.setPassword(existingUser.get().getPassword());
+        } else if (!existingUser.isPresent() || !user.getPassword().equals(existingUser.get().getPassword())) {
+            // Password is being changed, hash it
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return repository.save(user);
+        User savedUser = repository.save(user);
+        userLookupCache.invalidate(id);
+        userSuggestIndex.onUserSaved(existingUser.orElse(null), savedUser);
+        // Name, role or createdAt may have changed, reload recent lists on next read
+        recentUsersCache.clear();
+        if (existingUser.isPresent()) {
+            userStatsCounter.onRoleChanged(existingUser.get().getRole(), savedUser.getRole());
+        } else {
+            userStatsCounter.onUserCreated(savedUser.getRole());
+        }
+        collectionVersion.bump();
+        return savedUser;
     }
 
     public void deleteUser(String id) {
-        repository.deleteById(id);
+        User deletedUser = repository.findAndDeleteById(id);
+        userLookupCache.invalidate(id);
+        if (deletedUser != null) {
+            recentUsersCache.onUserDeleted(id);
+            userStatsCounter.onUserDeleted(deletedUser.getRole());
+            userSuggestIndex.onUserDeleted(deletedUser);
+            collectionVersion.bump();
+        }
+    }
+
+    // Set the role of every user matching the filter in one updateMany
+    public Map<String, Object> updateRoleMatching(UserFilter filter, String role) {
+        UpdateResult result = repository.updateRoleMatching(filter, role);
+        if (result.getModifiedCount() > 0) {
+            afterBulkWrite();
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("matched", result.getMatchedCount());
+        response.put("modified", result.getModifiedCount());
+        return response;
+    }
+    
+    // Delete every user matching the filter in one deleteMany
+    public Map<String, Object> deleteMatching(UserFilter filter) {
+        long deleted = repository.deleteMatching(filter);
+        if (deleted > 0) {
+            afterBulkWrite();
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("deleted", deleted);
+        return response;
+    }
+    
+    // The write does not say which users or roles it touched, so recount, drop the caches
+    // and rebuild the suggest index in the background (lookups use the old one until it is ready)
+    private void afterBulkWrite() {
+        userStatsCounter.onBulkWrite();
+        recentUsersCache.clear();
+        userLookupCache.clear();
+        userSuggestIndex.requestRebuild();
+        collectionVersion.bump();
+    }
+
+    // Get total and per-role user counts without querying MongoDB; without admins for normal users
+    public Map<String, Object> getUserStats(boolean includeAdmins) {
+        return userStatsCounter.getStats(includeAdmins);
     }
 
     public User authenticateUser(String username, String password) {
-        Optional<User> userOpt = repository.findByUsername(username);
+        Optional<User> userOpt = userLookupCache.findByUsername(username);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             // Use BCrypt to verify password
@@ -68,7 +173,7 @@ public class UserService {
     }
 
     public Optional<User> findByUsername(String username) {
-        return repository.findByUsername(username);
+        return userLookupCache.findByUsername(username);
     }
 
     public List<User> getUsersByRole(String role) {
@@ -108,12 +213,19 @@ public class UserService {
         // Update password
         currentUser.setPassword(newPassword);
         repository.save(currentUser);
+        userLookupCache.invalidate(currentUser.getId());
+        recentUsersCache.clear();
+        collectionVersion.bump();
+    }
+    
+    // Get all users with pagination, optional sorting and an optional fields= projection
+    public Map<String, Object> getAllUsersWithPagination(int page, int size, String sortBy, String sortDir, String fields) {
+        return getUsersByRoleWithPagination(null, page, size, sortBy, sortDir, fields);
     }
     
-    // Get all users with pagination and optional sorting
+    // Backward compatibility - every field
     public Map<String, Object> getAllUsersWithPagination(int page, int size, String sortBy, String sortDir) {
-        List<User> allUsers = repository.findAll();
-        return paginateAndSortUsers(allUsers, page, size, sortBy, sortDir);
+        return getAllUsersWithPagination(page, size, sortBy, sortDir, null);
     }
     
     // Backward compatibility - without sorting
@@ -121,10 +233,23 @@ public class UserService {
         return getAllUsersWithPagination(page, size, null, "asc");
     }
     
-    // Get users by role with pagination and optional sorting
+    // Get users by role with pagination, optional sorting and an optional fields= projection
+    public Map<String, Object> getUsersByRoleWithPagination(String role, int page, int size, String sortBy, String sortDir,
+                                                            String fields) {
+        PageRequest pageRequest = buildPageRequest(page, size, sortBy, sortDir);
+        // The total is counted once per collection version and role, not on every page
+        long version = pageTotals.version();
+        Long knownTotal = pageTotals.get(role, version);
+        Page<UserSummary> userPage = repository.findPage(role, pageRequest, UserProjection.fromParameter(fields), knownTotal);
+        if (knownTotal == null) {
+            pageTotals.put(role, version, userPage.getTotalElements());
+        }
+        return toPageResponse(userPage);
+    }
+    
+    // Backward compatibility - every field
     public Map<String, Object> getUsersByRoleWithPagination(String role, int page, int size, String sortBy, String sortDir) {
-        List<User> roleUsers = repository.findByRole(role);
-        return paginateAndSortUsers(roleUsers, page, size, sortBy, sortDir);
+        return getUsersByRoleWithPagination(role, page, size, sortBy, sortDir, null);
     }
     
     // Backward compatibility - without sorting
@@ -132,108 +257,186 @@ public class UserService {
         return getUsersByRoleWithPagination(role, page, size, null, "asc");
     }
     
-    // Helper method to paginate and sort users
-    private Map<String, Object> paginateAndSortUsers(List<User> users, int page, int size, String sortBy, String sortDir) {
-        // Sort users if sortBy is provided
-        if (sortBy != null && !sortBy.isEmpty()) {
-            users.sort((u1, u2) -> {
-                Object field1 = getFieldValue(u1, sortBy);
-                Object field2 = getFieldValue(u2, sortBy);
-                
-                if (field1 == null && field2 == null) return 0;
-                if (field1 == null) return 1;
-                if (field2 == null) return -1;
-                
-                int comparison = 0;
-                if (field1 instanceof Comparable && field2 instanceof Comparable) {
-                    @SuppressWarnings("unchecked")
-                    Comparable<Object> comp1 = (Comparable<Object>) field1;
-                    comparison = comp1.compareTo(field2);
-                }
-                
-                return "desc".equalsIgnoreCase(sortDir) ? -comparison : comparison;
-            });
+    // Search name, email and username through the text index, best match first unless sortBy is given
+    public Map<String, Object> searchUsers(String query, String role, int page, int size, String sortBy, String sortDir,
+                                           String fields) {
+        Page<UserSummary> userPage = repository.searchPage(searchText(query), role,
+                buildSearchPageRequest(page, size, sortBy, sortDir), UserProjection.fromParameter(fields));
+        return toSearchResponse(userPage);
+    }
+    
+    // Helper method to validate the search terms
+    static String searchText(String query) {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
         }
-        
-        return paginateUsers(users, page, size);
-    }
-    
-    // Helper method to get field value for sorting
-    private Object getFieldValue(User user, String fieldName) {
-        try {
-            switch (fieldName.toLowerCase()) {
-                case "id":
-                    return user.getId();
-                case "name":
-                    return user.getName();
-                case "email":
-                    return user.getEmail();
-                case "role":
-                    return user.getRole();
-                case "createdat":
-                case "created_at":
-                    return user.getCreatedAt();
-                case "updatedat":
-                case "updated_at":
-                    return user.getUpdatedAt();
-                default:
-                    return null;
-            }
-        } catch (Exception e) {
-            return null;
+        if (text.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Search query must not exceed " + MAX_SEARCH_LENGTH + " characters");
+        }
+        return text;
+    }
+    
+    // Helper method for search pages: without a known sortBy the page is left unsorted, meaning relevance
+    static PageRequest buildSearchPageRequest(int page, int size, String sortBy, String sortDir) {
+        PageRequest pageRequest = buildPageRequest(page, size, sortBy, sortDir);
+        return UserSortField.fromParameter(sortBy) == null ? pageRequest.withSort(Sort.unsorted()) : pageRequest;
+    }
+    
+    // Typeahead: users whose username, email or name starts with the prefix, from the in-memory index
+    public List<UserSummary> suggestUsers(String prefix, String role, int limit) {
+        return userSuggestIndex.suggest(suggestPrefix(prefix), role, limit);
+    }
+    
+    // Helper method to validate the typeahead prefix
+    static String suggestPrefix(String prefix) {
+        String text = prefix == null ? "" : prefix.trim();
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Prefix is required");
+        }
+        if (text.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Prefix must not exceed " + MAX_SEARCH_LENGTH + " characters");
         }
+        return text;
     }
     
-    // Helper method to paginate users
-    private Map<String, Object> paginateUsers(List<User> users, int page, int size) {
-        int totalUsers = users.size();
-        int totalPages = (int) Math.ceil((double) totalUsers / size);
+    // Get users with keyset (cursor) pagination. The first page is requested with an empty
+    // cursor and takes its sort from sortBy/sortDir; later pages take it from the cursor.
+    public Map<String, Object> getUsersAfterCursor(String role, String after, int size, String sortBy, String sortDir,
+                                                   String fields) {
+        UserCursor cursor = startCursor(after, size, sortBy, sortDir);
+        UserProjection projection = UserProjection.fromParameter(fields);
         
-        // Calculate start and end indices
-        int startIndex = (page - 1) * size;
-        int endIndex = Math.min(startIndex + size, totalUsers);
+        // Fetch one extra user to learn whether another page exists
+        List<UserSummary> users = repository.findSlice(role, cursor.getSortField(), cursor.getDirection(),
+                cursor.getLastValue(), cursor.getLastId(), size + 1, projection);
+        return toCursorResponse(users, size, cursor, projection);
+    }
+    
+    // Backward compatibility - every field
+    public Map<String, Object> getUsersAfterCursor(String role, String after, int size, String sortBy, String sortDir) {
+        return getUsersAfterCursor(role, after, size, sortBy, sortDir, null);
+    }
+    
+    // Helper method to decode the cursor, or build the starting one (no last id) for the first page
+    static UserCursor startCursor(String after, int size, String sortBy, String sortDir) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be 1 or greater");
+        }
+        if (after != null && !after.isEmpty()) {
+            return UserCursor.decode(after);
+        }
         
-        // Get users for current page
-        List<User> pageUsers = users.subList(startIndex, endIndex);
+        UserSortField sortField = UserSortField.fromParameter(sortBy);
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (sortField == null) {
+            sortField = UserSortField.ID;
+            direction = Sort.Direction.ASC;
+        }
+        return new UserCursor(sortField, direction, null, null);
+    }
+    
+    // Helper method to build the cursor response from a slice fetched with size + 1 users.
+    // The slice also holds the sort field, which is dropped again if fields= left it out.
+    static Map<String, Object> toCursorResponse(List<UserSummary> users, int size, UserCursor cursor,
+                                                UserProjection projection) {
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = UserCursor.after(users.get(size - 1), cursor.getSortField(), cursor.getDirection()).encode();
+        }
         
-        // Create response map
         Map<String, Object> response = new HashMap<>();
-        response.put("users", pageUsers);
-        response.put("currentPage", page);
-        response.put("totalPages", totalPages);
-        response.put("totalUsers", totalUsers);
+        response.put("users", projection.applyTo(users));
+        response.put("nextCursor", nextCursor);
         response.put("pageSize", size);
         
         return response;
     }
     
-    // Get recent users (last N users by creation date)
-    public List<User> getRecentUsers(int limit) {
-        List<User> allUsers = repository.findAll();
-        // Sort by creation date descending to get most recent users first
-        // Handle null createdAt values by putting them at the end
-        allUsers.sort((u1, u2) -> {
-            if (u1.getCreatedAt() == null && u2.getCreatedAt() == null) return 0;
-            if (u1.getCreatedAt() == null) return 1;
-            if (u2.getCreatedAt() == null) return -1;
-            return u2.getCreatedAt().compareTo(u1.getCreatedAt());
-        });
-        // Return only the requested number of users
-        return allUsers.stream().limit(limit).collect(java.util.stream.Collectors.toList());
-    }
-    
-    // Get recent users by role (last N users by creation date)
-    public List<User> getRecentUsersByRole(String role, int limit) {
-        List<User> roleUsers = repository.findByRole(role);
-        // Sort by creation date descending to get most recent users first
-        // Handle null createdAt values by putting them at the end
-        roleUsers.sort((u1, u2) -> {
-            if (u1.getCreatedAt() == null && u2.getCreatedAt() == null) return 0;
-            if (u1.getCreatedAt() == null) return 1;
-            if (u2.getCreatedAt() == null) return -1;
-            return u2.getCreatedAt().compareTo(u1.getCreatedAt());
-        });
-        // Return only the requested number of users
-        return roleUsers.stream().limit(limit).collect(java.util.stream.Collectors.toList());
+    // Helper method to translate 1-based page parameters into a MongoDB page request
+    static PageRequest buildPageRequest(int page, int size, String sortBy, String sortDir) {
+        if (page < 1) {
+            throw new IllegalArgumentException("Page must be 1 or greater");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be 1 or greater");
+        }
+        return PageRequest.of(page - 1, size, buildSort(sortBy, sortDir));
+    }
+    
+    // Helper method to build the sort, with id as tiebreaker so pages are stable
+    static Sort buildSort(String sortBy, String sortDir) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        UserSortField sortField = UserSortField.fromParameter(sortBy);
+        
+        if (sortField == null) {
+            // Unknown or missing sort field keeps insertion order
+            return Sort.by(Sort.Direction.ASC, UserSortField.ID.getProperty());
+        }
+        if (sortField == UserSortField.ID) {
+            return Sort.by(direction, UserSortField.ID.getProperty());
+        }
+        return Sort.by(direction, sortField.getProperty()).and(Sort.by(direction, UserSortField.ID.getProperty()));
+    }
+    
+    // Helper method to build the paginated response
+    static Map<String, Object> toPageResponse(Page<?> userPage) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", userPage.getContent());
+        response.put("currentPage", userPage.getNumber() + 1);
+        response.put("totalPages", userPage.getTotalPages());
+        response.put("totalUsers", userPage.getTotalElements());
+        response.put("pageSize", userPage.getSize());
+        
+        return response;
+    }
+
+    // Search pages are cut at MAX_SEARCH_MATCHES; totalCapped tells clients totalUsers may be short of the real count
+    static Map<String, Object> toSearchResponse(Page<?> userPage) {
+        Map<String, Object> response = toPageResponse(userPage);
+        response.put("totalCapped", userPage.getTotalElements() >= UserRepositoryImpl.MAX_SEARCH_MATCHES);
+        return response;
+    }
+    
+    // Write every matching user to out, one line each, straight from a MongoDB cursor.
+    // Only one batch of users is held in memory; the response is flushed every EXPORT_FLUSH_ROWS users.
+    public long exportUsers(String role, String sortBy, String sortDir, UserExportFormat format,
+                            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(format.header());
+        
+        long written = 0;
+        try (Stream<User> users = repository.streamUsers(role, buildSort(sortBy, sortDir))) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                writer.write(format.line(iterator.next()));
+                if (++written % EXPORT_FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return written;
+    }
+    
+    // Get recent users (last N users by creation date), with an optional fields= projection
+    public List<UserSummary> getRecentUsers(int limit, String fields) {
+        return UserProjection.fromParameter(fields).applyTo(recentUsersCache.getRecentUsers(null, limit));
+    }
+    
+    // Backward compatibility - every field
+    public List<UserSummary> getRecentUsers(int limit) {
+        return getRecentUsers(limit, null);
+    }
+    
+    // Get recent users by role (last N users by creation date), with an optional fields= projection
+    public List<UserSummary> getRecentUsersByRole(String role, int limit, String fields) {
+        return UserProjection.fromParameter(fields).applyTo(recentUsersCache.getRecentUsers(role, limit));
+    }
+    
+    // Backward compatibility - every field
+    public List<UserSummary> getRecentUsersByRole(String role, int limit) {
+        return getRecentUsersByRole(role, limit, null);
     }
 }
\ No newline at end of file
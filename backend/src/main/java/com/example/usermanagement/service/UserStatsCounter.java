@@ -0,0 +1,124 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory user totals and per-role counts, so the dashboard stats are O(1).
+ *
+ * - UserService adjusts the counters on create, role change and delete, and
+ *   recounts after bulk updates and deletes
+ * - The first read and a periodic job reconcile them against countDocuments,
+ *   which also picks up writes made outside UserService or by other instances
+ */
+@Component
+public class UserStatsCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsCounter.class);
+
+    private static final String ADMIN_ROLE = "admin";
+
+    private final UserRepository repository;
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final Map<String, AtomicLong> roleCounts = new ConcurrentHashMap<>();
+    private volatile boolean initialized = false;
+
+    // A lock rather than synchronized: a virtual thread blocked on MongoDB inside a monitor pins its carrier
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    public UserStatsCounter(UserRepository repository) {
+        this.repository = repository;
+    }
+
+    public void onUserCreated(String role) {
+        totalUsers.incrementAndGet();
+        roleCounter(role).incrementAndGet();
+    }
+
+    public void onUserDeleted(String role) {
+        totalUsers.decrementAndGet();
+        roleCounter(role).decrementAndGet();
+    }
+
+    public void onRoleChanged(String oldRole, String newRole) {
+        if (oldRole == null ? newRole == null : oldRole.equals(newRole)) {
+            return;
+        }
+        roleCounter(oldRole).decrementAndGet();
+        roleCounter(newRole).incrementAndGet();
+    }
+
+    /**
+     * Get the current counts
+     * @param includeAdmins false to leave admins out of both totalUsers and roleCounts,
+     *                      for callers who only get to see normal users
+     * @return Map with totalUsers and roleCounts (role name to count)
+     */
+    public Map<String, Object> getStats(boolean includeAdmins) {
+        if (!initialized) {
+            reconcile();
+        }
+
+        Map<String, Long> roles = new HashMap<>();
+        roleCounts.forEach((role, count) -> roles.put(role, count.get()));
+        long total = totalUsers.get();
+        if (!includeAdmins) {
+            Long admins = roles.remove(ADMIN_ROLE);
+            total -= admins == null ? 0 : admins;
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsers", total);
+        stats.put("roleCounts", roles);
+        return stats;
+    }
+
+    /**
+     * Reset the counters from MongoDB. A write racing with this can be off by one
+     * until the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.user-stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.user-stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        recount(true);
+    }
+
+    /**
+     * Reset the counters from MongoDB after a bulk write, whose per-role effect is unknown
+     */
+    public void onBulkWrite() {
+        recount(false);
+    }
+
+    private void recount(boolean reportDrift) {
+        reconcileLock.lock();
+        try {
+            long total = repository.count();
+            Map<String, Long> counts = repository.countUsersByRole();
+
+            long previousTotal = totalUsers.getAndSet(total);
+            roleCounts.keySet().retainAll(counts.keySet());
+            counts.forEach((role, count) -> roleCounter(role).set(count));
+
+            if (reportDrift && initialized && previousTotal != total) {
+                logger.warn("User stats drifted: counted {} users, counters had {}", total, previousTotal);
+            }
+            initialized = true;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private AtomicLong roleCounter(String role) {
+        return roleCounts.computeIfAbsent(role == null ? "none" : role, key -> new AtomicLong());
+    }
+}
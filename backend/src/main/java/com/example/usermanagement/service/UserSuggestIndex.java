@@ -0,0 +1,646 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-process prefix index over lowercased username, email and name, for typeahead
+ * without a MongoDB round trip.
+ *
+ * - Keys are UTF-8 byte arrays in one sorted array with a parallel int array of user
+ *   slots; a lookup is a binary search and a scan of the matching range
+ * - Writes go to a small sorted delta that is folded into the main arrays once it holds
+ *   app.user-suggest.merge-threshold keys; removed users are skipped on lookup and compacted
+ *   away once they make up an eighth of the table
+ * - User ids are packed into a long and an int, roles into a byte
+ * - Built once the application is ready, kept current by UserService, and rebuilt every
+ *   app.user-suggest.rebuild-interval-ms to pick up writes made by other instances; bulk
+ *   writes ask for a rebuild in the background with {@link #requestRebuild()}
+ * - user.suggest.size and user.suggest.memory report the users held and the estimated heap
+ */
+@Component
+public class UserSuggestIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSuggestIndex.class);
+
+    private final UserRepository repository;
+    private final int mergeThreshold;
+
+    // Lookups share the read lock; writes and merges take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // One rebuild at a time; MongoDB is read outside lock, so lookups are served from the old table meanwhile
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Runs requested rebuilds: one at a time with at most one waiting, since a waiting rebuild
+    // has not read MongoDB yet and so already covers any later request
+    private final ThreadPoolExecutor rebuildExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1),
+            runnable -> {
+                Thread thread = new Thread(runnable, "user-suggest-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    // Guarded by lock; empty until the first build
+    private Table table;
+
+    // Writes made while a rebuild is reading MongoDB, replayed onto the new table; null otherwise
+    private List<Consumer<Table>> changesDuringRebuild;
+
+    public UserSuggestIndex(UserRepository repository, MeterRegistry meterRegistry,
+                            @Value("${app.user-suggest.merge-threshold:1024}") int mergeThreshold) {
+        this.repository = repository;
+        this.mergeThreshold = Math.max(16, mergeThreshold);
+        this.table = new Table(this.mergeThreshold);
+
+        Gauge.builder("user.suggest.size", this, UserSuggestIndex::size)
+                .description("Users in the typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("user.suggest.memory", this, UserSuggestIndex::memoryBytes)
+                .description("Estimated heap held by the typeahead index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Users whose username, email or name starts with the prefix, ignoring case. Keys are
+     * visited in order, so shorter and alphabetically earlier matches come first.
+     * @param role Role to filter on, or null for all users
+     * @param limit Maximum number of users, at most {@link #MAX_LIMIT}
+     */
+    public List<UserSummary> suggest(String prefix, String role, int limit) {
+        byte[] key = utf8(prefix.toLowerCase(Locale.ROOT));
+        lock.readLock().lock();
+        try {
+            return table.suggest(key, role, Math.min(limit, MAX_LIMIT));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a created or updated user
+     * @param previous The user as it was before the write, or null for a new user
+     */
+    public void onUserSaved(User previous, User saved) {
+        write(table -> {
+            if (previous != null) {
+                table.remove(previous.getId(), previous.getUsername());
+            }
+            // Makes replaying the write idempotent when the rebuild already read the saved user
+            table.remove(saved.getId(), saved.getUsername());
+            table.add(saved, false);
+        });
+    }
+
+    public void onUserDeleted(User deleted) {
+        write(table -> table.remove(deleted.getId(), deleted.getUsername()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild in the background and return at once, e.g. after a bulk write that does not
+     * say which users it touched. Lookups use the current index until the new one is ready.
+     */
+    public void requestRebuild() {
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                // The scheduled rebuild tries again
+                logger.error("Failed to rebuild user suggest index", e);
+            }
+        });
+    }
+
+    /**
+     * Replace the index with one read from MongoDB, on the calling thread
+     */
+    @Scheduled(fixedDelayString = "${app.user-suggest.rebuild-interval-ms:600000}",
+               initialDelayString = "${app.user-suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            setChangesDuringRebuild(new ArrayList<>());
+
+            Table rebuilt = new Table(mergeThreshold);
+            try (Stream<User> users = repository.streamUsers(null, Sort.unsorted())) {
+                users.forEach(user -> rebuilt.add(user, true));
+            } catch (RuntimeException e) {
+                setChangesDuringRebuild(null);
+                throw e;
+            }
+            rebuilt.sortLoaded();
+
+            int users;
+            long bytes;
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                changesDuringRebuild = null;
+                table = rebuilt;
+                users = table.live;
+                bytes = table.memoryBytes();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // Debug: bulk writes rebuild the index, and its size is already on the user.suggest gauges
+            logger.debug("Built user suggest index: {} users, ~{} bytes per user, in {} ms",
+                    users, users == 0 ? 0 : bytes / users, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return table.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return table.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void write(Consumer<Table> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(table);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setChangesDuringRebuild(List<Consumer<Table>> changes) {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Heap taken by a byte[] of this length: 16 byte header, padded to 8 bytes
+    private static long arrayBytes(int length) {
+        return 16 + ((length + 7) & ~7);
+    }
+
+    // Not thread safe; UserSuggestIndex guards it
+    private static final class Table {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        final int mergeThreshold;
+
+        // Per-user columns indexed by slot; usernames[slot] == null marks a removed user
+        long[] idHigh = new long[INITIAL_CAPACITY];
+        int[] idLow = new int[INITIAL_CAPACITY];
+        byte[][] usernames = new byte[INITIAL_CAPACITY][];
+        byte[][] emails = new byte[INITIAL_CAPACITY][];
+        byte[][] names = new byte[INITIAL_CAPACITY][];
+        byte[] roles = new byte[INITIAL_CAPACITY];
+        // Ids that are not ObjectIds, by slot (normally empty)
+        Map<Integer, String> otherIds = new HashMap<>();
+        final List<String> roleNames = new ArrayList<>();
+        int slots;
+        int live;
+        int removed;
+
+        // Lowercased username, email and name of every user, sorted, with the slot each belongs to
+        byte[][] keys = new byte[INITIAL_CAPACITY][];
+        int[] keySlots = new int[INITIAL_CAPACITY];
+        int keyCount;
+
+        // Keys added since the last merge, sorted the same way
+        byte[][] deltaKeys;
+        int[] deltaSlots;
+        int deltaCount;
+
+        // Heap held by the byte arrays of live users
+        long stringBytes;
+
+        Table(int mergeThreshold) {
+            this.mergeThreshold = mergeThreshold;
+            // Room for the three keys of the user whose add triggers the merge
+            this.deltaKeys = new byte[mergeThreshold + 3][];
+            this.deltaSlots = new int[mergeThreshold + 3];
+        }
+
+        // Bulk loads append unsorted to the main arrays; sortLoaded() must follow
+        void add(User user, boolean bulk) {
+            if (user.getId() == null || user.getUsername() == null) {
+                return;
+            }
+            if (slots == usernames.length) {
+                growSlots(slots + (slots >> 1));
+            }
+
+            int slot = slots++;
+            String id = user.getId();
+            if (ObjectId.isValid(id)) {
+                ByteBuffer packed = ByteBuffer.wrap(new ObjectId(id).toByteArray());
+                idHigh[slot] = packed.getLong();
+                idLow[slot] = packed.getInt();
+            } else {
+                otherIds.put(slot, id);
+            }
+            roles[slot] = roleCode(user.getRole());
+            usernames[slot] = column(user.getUsername(), slot, bulk);
+            emails[slot] = column(user.getEmail(), slot, bulk);
+            names[slot] = column(user.getName(), slot, bulk);
+            live++;
+
+            if (!bulk && deltaCount >= mergeThreshold) {
+                mergeDelta();
+            }
+        }
+
+        // Store the display value and index its lowercase key (the same array when already lowercase)
+        private byte[] column(String value, int slot, boolean bulk) {
+            if (value == null) {
+                return null;
+            }
+            byte[] display = utf8(value);
+            String lower = value.toLowerCase(Locale.ROOT);
+            byte[] key = lower.equals(value) ? display : utf8(lower);
+            stringBytes += arrayBytes(display.length) + (key == display ? 0 : arrayBytes(key.length));
+
+            if (bulk) {
+                if (keyCount == keys.length) {
+                    keys = Arrays.copyOf(keys, keyCount + (keyCount >> 1));
+                    keySlots = Arrays.copyOf(keySlots, keys.length);
+                }
+                keys[keyCount] = key;
+                keySlots[keyCount++] = slot;
+            } else {
+                int at = lowerBound(deltaKeys, deltaCount, key);
+                System.arraycopy(deltaKeys, at, deltaKeys, at + 1, deltaCount - at);
+                System.arraycopy(deltaSlots, at, deltaSlots, at + 1, deltaCount - at);
+                deltaKeys[at] = key;
+                deltaSlots[at] = slot;
+                deltaCount++;
+            }
+            return display;
+        }
+
+        // Remove the live user with this id, found through its username key
+        void remove(String id, String username) {
+            if (id == null || username == null) {
+                return;
+            }
+            byte[] key = utf8(username.toLowerCase(Locale.ROOT));
+            int slot = find(keys, keySlots, keyCount, key, id);
+            if (slot < 0) {
+                slot = find(deltaKeys, deltaSlots, deltaCount, key, id);
+            }
+            if (slot < 0) {
+                return;
+            }
+
+            // Keys still point at the slot until the next merge; the null username skips it
+            stringBytes -= userBytes(slot);
+            usernames[slot] = null;
+            emails[slot] = null;
+            names[slot] = null;
+            otherIds.remove(slot);
+            live--;
+            removed++;
+            if (removed >= Math.max(mergeThreshold, live >> 3)) {
+                compact();
+            }
+        }
+
+        private int find(byte[][] sortedKeys, int[] sortedSlots, int count, byte[] key, String id) {
+            for (int i = lowerBound(sortedKeys, count, key); i < count && Arrays.equals(sortedKeys[i], key); i++) {
+                int slot = sortedSlots[i];
+                if (usernames[slot] != null && id.equals(id(slot))) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        List<UserSummary> suggest(byte[] prefix, String role, int limit) {
+            List<UserSummary> results = new ArrayList<>(limit);
+            int[] found = new int[limit];
+            int i = lowerBound(keys, keyCount, prefix);
+            int j = lowerBound(deltaKeys, deltaCount, prefix);
+
+            // Walk both sorted ranges in key order, as one merged range
+            while (results.size() < limit) {
+                boolean inMain = i < keyCount && startsWith(keys[i], prefix);
+                boolean inDelta = j < deltaCount && startsWith(deltaKeys[j], prefix);
+                if (!inMain && !inDelta) {
+                    break;
+                }
+                int slot = inMain && (!inDelta || Arrays.compareUnsigned(keys[i], deltaKeys[j]) <= 0)
+                        ? keySlots[i++]
+                        : deltaSlots[j++];
+
+                if (usernames[slot] == null || (role != null && !role.equals(roleName(slot)))
+                        || contains(found, results.size(), slot)) {
+                    continue;
+                }
+                found[results.size()] = slot;
+                results.add(summary(slot));
+            }
+            return results;
+        }
+
+        // Fold the delta into the main keys, moving the main keys between delta keys in blocks
+        private void mergeDelta() {
+            int total = keyCount + deltaCount;
+            if (total > keys.length) {
+                keys = Arrays.copyOf(keys, total + (total >> 1));
+                keySlots = Arrays.copyOf(keySlots, keys.length);
+            }
+            // Fill from the end so nothing is overwritten before it has moved
+            int end = keyCount;
+            for (int j = deltaCount - 1; j >= 0; j--) {
+                int at = upperBound(keys, end, deltaKeys[j]);
+                int shift = j + 1;
+                System.arraycopy(keys, at, keys, at + shift, end - at);
+                System.arraycopy(keySlots, at, keySlots, at + shift, end - at);
+                keys[at + j] = deltaKeys[j];
+                keySlots[at + j] = deltaSlots[j];
+                end = at;
+            }
+            keyCount = total;
+            Arrays.fill(deltaKeys, 0, deltaCount, null);
+            deltaCount = 0;
+        }
+
+        // Fold the delta into the main arrays and drop removed users, renumbering slots
+        private void compact() {
+            int[] newSlots = new int[slots];
+            int capacity = Math.max(INITIAL_CAPACITY, live + (live >> 1));
+            long[] newIdHigh = new long[capacity];
+            int[] newIdLow = new int[capacity];
+            byte[][] newUsernames = new byte[capacity][];
+            byte[][] newEmails = new byte[capacity][];
+            byte[][] newNames = new byte[capacity][];
+            byte[] newRoles = new byte[capacity];
+            Map<Integer, String> newOtherIds = new HashMap<>();
+
+            int next = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (usernames[slot] == null) {
+                    newSlots[slot] = -1;
+                    continue;
+                }
+                newSlots[slot] = next;
+                newIdHigh[next] = idHigh[slot];
+                newIdLow[next] = idLow[slot];
+                newUsernames[next] = usernames[slot];
+                newEmails[next] = emails[slot];
+                newNames[next] = names[slot];
+                newRoles[next] = roles[slot];
+                String otherId = otherIds.get(slot);
+                if (otherId != null) {
+                    newOtherIds.put(next, otherId);
+                }
+                next++;
+            }
+
+            int liveKeys = 0;
+            for (int i = 0; i < keyCount; i++) {
+                if (newSlots[keySlots[i]] >= 0) {
+                    liveKeys++;
+                }
+            }
+            for (int j = 0; j < deltaCount; j++) {
+                if (newSlots[deltaSlots[j]] >= 0) {
+                    liveKeys++;
+                }
+            }
+
+            byte[][] mergedKeys = new byte[Math.max(INITIAL_CAPACITY, liveKeys)][];
+            int[] mergedSlots = new int[mergedKeys.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < keyCount || j < deltaCount) {
+                boolean fromMain = j == deltaCount
+                        || (i < keyCount && Arrays.compareUnsigned(keys[i], deltaKeys[j]) <= 0);
+                byte[] key = fromMain ? keys[i] : deltaKeys[j];
+                int slot = newSlots[fromMain ? keySlots[i++] : deltaSlots[j++]];
+                if (slot >= 0) {
+                    mergedKeys[count] = key;
+                    mergedSlots[count++] = slot;
+                }
+            }
+
+            idHigh = newIdHigh;
+            idLow = newIdLow;
+            usernames = newUsernames;
+            emails = newEmails;
+            names = newNames;
+            roles = newRoles;
+            otherIds = newOtherIds;
+            slots = next;
+            removed = 0;
+            keys = mergedKeys;
+            keySlots = mergedSlots;
+            keyCount = count;
+            Arrays.fill(deltaKeys, 0, deltaCount, null);
+            deltaCount = 0;
+        }
+
+        // Sort the keys appended by a bulk load, with a merge sort over the parallel arrays
+        void sortLoaded() {
+            byte[][] keyBuffer = new byte[keyCount][];
+            int[] slotBuffer = new int[keyCount];
+            for (int width = 1; width < keyCount; width <<= 1) {
+                for (int start = 0; start < keyCount; start += width << 1) {
+                    int middle = Math.min(start + width, keyCount);
+                    int end = Math.min(start + (width << 1), keyCount);
+                    int left = start;
+                    int right = middle;
+                    for (int out = start; out < end; out++) {
+                        if (left < middle && (right == end || Arrays.compareUnsigned(keys[left], keys[right]) <= 0)) {
+                            keyBuffer[out] = keys[left];
+                            slotBuffer[out] = keySlots[left++];
+                        } else {
+                            keyBuffer[out] = keys[right];
+                            slotBuffer[out] = keySlots[right++];
+                        }
+                    }
+                }
+                byte[][] sortedKeys = keyBuffer;
+                keyBuffer = keys;
+                keys = sortedKeys;
+                int[] sortedSlots = slotBuffer;
+                slotBuffer = keySlots;
+                keySlots = sortedSlots;
+            }
+        }
+
+        long memoryBytes() {
+            // Column and key array slots: references are 4 bytes with compressed oops
+            long columns = (long) usernames.length * (8 + 4 + 4 + 4 + 4 + 1);
+            long sortedKeys = (long) (keys.length + deltaKeys.length) * (4 + 4);
+            return stringBytes + columns + sortedKeys + otherIds.size() * 96L;
+        }
+
+        private long userBytes(int slot) {
+            return columnBytes(usernames[slot]) + columnBytes(emails[slot]) + columnBytes(names[slot]);
+        }
+
+        // Approximate: assumes the key is a separate array only when the value has upper case
+        private static long columnBytes(byte[] display) {
+            if (display == null) {
+                return 0;
+            }
+            String value = new String(display, StandardCharsets.UTF_8);
+            boolean lowercase = value.toLowerCase(Locale.ROOT).equals(value);
+            return arrayBytes(display.length) * (lowercase ? 1 : 2);
+        }
+
+        private void growSlots(int capacity) {
+            idHigh = Arrays.copyOf(idHigh, capacity);
+            idLow = Arrays.copyOf(idLow, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+            names = Arrays.copyOf(names, capacity);
+            roles = Arrays.copyOf(roles, capacity);
+        }
+
+        private byte roleCode(String role) {
+            if (role == null) {
+                return -1;
+            }
+            int code = roleNames.indexOf(role);
+            if (code < 0) {
+                code = roleNames.size();
+                roleNames.add(role);
+            }
+            return (byte) code;
+        }
+
+        private String roleName(int slot) {
+            return roles[slot] < 0 ? null : roleNames.get(roles[slot]);
+        }
+
+        private String id(int slot) {
+            String otherId = otherIds.get(slot);
+            if (otherId != null) {
+                return otherId;
+            }
+            return new ObjectId(ByteBuffer.allocate(12).putLong(idHigh[slot]).putInt(idLow[slot]).array()).toHexString();
+        }
+
+        private UserSummary summary(int slot) {
+            UserSummary user = new UserSummary();
+            user.setId(id(slot));
+            user.setUsername(text(usernames[slot]));
+            user.setEmail(text(emails[slot]));
+            user.setName(text(names[slot]));
+            user.setRole(roleName(slot));
+            return user;
+        }
+
+        private static String text(byte[] value) {
+            return value == null ? null : new String(value, StandardCharsets.UTF_8);
+        }
+
+        // First index whose key is not less than the given key
+        private static int lowerBound(byte[][] sortedKeys, int count, byte[] key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (Arrays.compareUnsigned(sortedKeys[middle], key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // First index whose key is greater than the given key
+        private static int upperBound(byte[][] sortedKeys, int count, byte[] key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (Arrays.compareUnsigned(sortedKeys[middle], key) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static boolean startsWith(byte[] key, byte[] prefix) {
+            return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
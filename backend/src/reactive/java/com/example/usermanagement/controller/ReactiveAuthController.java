@@ -0,0 +1,220 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.exception.LoginThrottledException;
+import com.example.usermanagement.exception.PasswordHashingUnavailableException;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.security.JwtUtil;
+import com.example.usermanagement.security.LoginThrottle;
+import com.example.usermanagement.security.ReactivePasswordHasher;
+import com.example.usermanagement.security.TokenRevocationList;
+import com.example.usermanagement.security.VerifiedToken;
+import com.example.usermanagement.service.PasswordMigrationService;
+import com.example.usermanagement.service.ReactiveUserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+// WebFlux version of AuthController, same paths and JSON
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class ReactiveAuthController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthController.class);
+
+    private final ReactiveUserService userService;
+    private final ReactivePasswordHasher passwordHasher;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
+    private final LoginThrottle loginThrottle;
+    private final PasswordMigrationService passwordMigrationService;
+    private final MeterRegistry meterRegistry;
+
+    public ReactiveAuthController(ReactiveUserService userService, ReactivePasswordHasher passwordHasher,
+                                  JwtUtil jwtUtil, TokenRevocationList tokenRevocationList, LoginThrottle loginThrottle,
+                                  PasswordMigrationService passwordMigrationService, MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.passwordHasher = passwordHasher;
+        this.jwtUtil = jwtUtil;
+        this.tokenRevocationList = tokenRevocationList;
+        this.loginThrottle = loginThrottle;
+        this.passwordMigrationService = passwordMigrationService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<Map<String, Object>>> login(@Valid @RequestBody AuthController.LoginRequest loginRequest,
+                                                           ServerWebExchange exchange) {
+        String username = loginRequest.getUsername();
+        logger.info("Login attempt for username: {}", username);
+
+        // A few map operations under a stripe lock, fine on the event loop; a throttled attempt never loads the user
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String clientIp = remoteAddress != null ? remoteAddress.getHostString() : null;
+        try {
+            loginThrottle.acquire(clientIp, username);
+        } catch (LoginThrottledException e) {
+            return Mono.just(throttled(username, e));
+        }
+
+        // The password check runs on the hashing pool; the event loop only waits for its result
+        return userService.findByUsername(username)
+                .flatMap(user -> passwordHasher.matches(loginRequest.getPassword(), user.getPassword())
+                        .map(matches -> matches
+                                ? loginSucceeded(user, loginRequest.getPassword(), clientIp)
+                                : invalidCredentials(username)))
+                // An unknown username still costs one hash, so it cannot be told apart by timing
+                .switchIfEmpty(Mono.defer(() -> passwordHasher.matchesUnknownUser(loginRequest.getPassword())
+                        .map(matches -> invalidCredentials(username))))
+                .onErrorResume(PasswordHashingUnavailableException.class, e -> Mono.just(hashingUnavailable(username, e)))
+                .onErrorResume(e -> {
+                    logger.error("Authentication error for user: {}", username, e);
+                    countLogin("error");
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "Authentication failed: " + e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response));
+                });
+    }
+
+    private ResponseEntity<Map<String, Object>> loginSucceeded(User user, String rawPassword, String clientIp) {
+        logger.info("Authentication successful for user: {}", user.getUsername());
+        // Only failed attempts count against the username
+        loginThrottle.onSuccess(clientIp, user.getUsername());
+        String jwt = jwtUtil.generateToken(user.getUsername(), user.getRole());
+        countLogin("success");
+        
+        // Upgrade password encoding if needed (BCrypt -> Argon2id migration), off the event loop
+        passwordMigrationService.upgradePasswordIfNeeded(user, rawPassword);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Login successful");
+        response.put("token", jwt);
+        response.put("user", new AuthController.UserResponse(user));
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> invalidCredentials(String username) {
+        logger.warn("Authentication failed for user: {}", username);
+        countLogin("failure");
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Invalid credentials");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> throttled(String username, LoginThrottledException e) {
+        logger.warn("Login throttled for user: {}", username);
+        countLogin("throttled");
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> hashingUnavailable(String username, PasswordHashingUnavailableException e) {
+        logger.warn("Password hashing pool saturated, rejecting login for user: {}", username);
+        countLogin("unavailable");
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    // Same auth.login counter as AuthController
+    private void countLogin(String outcome) {
+        meterRegistry.counter("auth.login", "outcome", outcome).increment();
+    }
+
+    @PostMapping("/validate")
+    public ResponseEntity<Map<String, Object>> validateToken(@RequestHeader("Authorization") String token) {
+        // Verification is CPU-only (and cached), so it runs on the event loop
+        VerifiedToken verified = token.startsWith("Bearer ") ? jwtUtil.verify(token.substring(7)) : null;
+        Map<String, Object> response = new HashMap<>();
+        if (verified == null) {
+            response.put("success", false);
+            response.put("message", "Invalid token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Token valid");
+        response.put("username", verified.getUsername());
+        response.put("role", verified.getRole());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Map<String, Object>>> logout(@RequestHeader(value = "Authorization", required = false) String token) {
+        VerifiedToken verified = token != null && token.startsWith("Bearer ") ? jwtUtil.verify(token.substring(7)) : null;
+        if (verified == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Invalid token");
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response));
+        }
+        // Saving the revocation is a blocking MongoDB write
+        return Mono.fromRunnable(() -> tokenRevocationList.revoke(verified))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.fromSupplier(() -> {
+                    logger.info("Token revoked on logout for user: {}", verified.getUsername());
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Logged out");
+                    return ResponseEntity.ok(response);
+                }));
+    }
+
+    @PostMapping("/revoke/{username}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Map<String, Object>>> revokeUserTokens(@PathVariable String username) {
+        return Mono.fromRunnable(() -> tokenRevocationList.revokeUser(username))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.fromSupplier(() -> {
+                    logger.info("All tokens revoked for user: {}", username);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Tokens revoked for " + username);
+                    return ResponseEntity.ok(response);
+                }));
+    }
+
+    @GetMapping("/password-stats")
+    public Mono<ResponseEntity<Map<String, Object>>> getPasswordStatistics() {
+        // Cached, but a miss runs a blocking aggregation
+        return Mono.fromCallable(passwordMigrationService::getPasswordStatistics)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(stats -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Password statistics retrieved");
+                    response.put("statistics", AuthController.statisticsBody(stats));
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "Failed to retrieve password statistics: " + e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response));
+                });
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.service.ReactiveUserService;
+import com.example.usermanagement.service.RecentUsersCache;
+import com.example.usermanagement.service.UserCollectionVersion;
+import com.example.usermanagement.service.UserExportFormat;
+import com.example.usermanagement.service.UserSuggestIndex;
+import com.example.usermanagement.dto.BulkRoleUpdateRequest;
+import com.example.usermanagement.dto.PasswordResetRequest;
+import com.example.usermanagement.repository.UserFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// WebFlux version of UserController, same paths and JSON
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/users")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class ReactiveUserController {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final ReactiveUserService service;
+    private final UserCollectionVersion collectionVersion;
+
+    public ReactiveUserController(ReactiveUserService service, UserCollectionVersion collectionVersion) {
+        this.service = service;
+        this.collectionVersion = collectionVersion;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<ResponseEntity<Map<String, Object>>> getUsers(
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "4") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            Authentication authentication,
+            ServerWebExchange exchange) {
+        
+        // Normal users should only see other normal users (not admins)
+        String role = UserController.visibleRole(authentication, userRole);
+        String etag = collectionVersion.etag("users", role, page, size, sortBy, sortDir, after, fields);
+        return conditional(exchange, etag, () -> after != null
+                ? service.getUsersAfterCursor(role, after, size, sortBy, sortDir, fields)
+                : service.getUsersByRoleWithPagination(role, page, size, sortBy, sortDir, fields));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<Map<String, Object>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "4") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+        String role = UserController.visibleRole(authentication, userRole);
+        return service.searchUsers(q, role, page, size, sortBy, sortDir, fields);
+    }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<List<UserSummary>> suggestUsers(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        int boundedLimit = Math.max(1, Math.min(limit, UserSuggestIndex.MAX_LIMIT));
+        String role = UserController.visibleRole(authentication, userRole);
+        return service.suggestUsers(prefix, role, boundedLimit);
+    }
+
+    @GetMapping("/recent")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<ResponseEntity<List<UserSummary>>> getRecentUsers(
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) String fields,
+            Authentication authentication,
+            ServerWebExchange exchange) {
+        // Keep the limit within what the recent users cache holds
+        int boundedLimit = Math.max(1, Math.min(limit, RecentUsersCache.CAPACITY));
+        // Only admins may ask for all users or for admins only
+        String role = UserController.isAdmin(authentication) && "admin".equals(userRole) ? "admin" : UserController.visibleRole(authentication, userRole);
+        String etag = collectionVersion.etag("recent", role, boundedLimit, fields);
+        return conditional(exchange, etag, () -> service.getRecentUsers(role, boundedLimit, fields));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportUsers(
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            Authentication authentication) {
+        String role = UserController.visibleRole(authentication, userRole);
+        // Raw buffers, so no JSON encoder re-quotes the NDJSON lines. Wrapped in a Mono because
+        // reactive method security only accepts Publisher return types.
+        return Mono.fromCallable(() -> UserExportFormat.fromParameter(format))
+                .map(exportFormat -> ResponseEntity.ok()
+                        .contentType(exportFormat.getMediaType())
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                        .body(service.exportUsers(role, sortBy, sortDir, exportFormat)));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<ResponseEntity<Map<String, Object>>> getUserStats(Authentication authentication, ServerWebExchange exchange) {
+        boolean admin = UserController.isAdmin(authentication);
+        return conditional(exchange, collectionVersion.etag("stats", admin), () -> service.getUserStats(admin));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<User> createUser(@Validated(User.Create.class) @RequestBody User user) {
+        return service.createUser(user);
+    }
+
+    @PostMapping("/bulk-update")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<Map<String, Object>> updateUsersMatching(@Valid @RequestBody BulkRoleUpdateRequest request) {
+        return service.updateRoleMatching(request.getFilter(), request.getRole());
+    }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<Map<String, Object>> deleteUsersMatching(@RequestBody UserFilter filter) {
+        return service.deleteMatching(filter);
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<User> updateUser(@PathVariable String id, @Valid @RequestBody User user) {
+        return service.updateUser(id, user);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<Void> deleteUser(@PathVariable String id) {
+        return service.deleteUser(id);
+    }
+    
+    @PostMapping("/reset-password")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<ResponseEntity<String>> resetPassword(@Valid @RequestBody PasswordResetRequest request) {
+        return service.resetPassword(request.getCurrentPassword(), request.getNewPassword())
+                .thenReturn(ResponseEntity.ok("Password updated successfully"))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    // ETag handling as in UserController.conditional; on a match the service is never subscribed to
+    private static <T> Mono<ResponseEntity<T>> conditional(ServerWebExchange exchange, String etag, Supplier<Mono<T>> body) {
+        if (exchange.checkNotModified(etag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).<T>build());
+        }
+        return body.get().map(value -> ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(value));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.usermanagement.exception;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux-only exceptions, mapped to the same bodies {@link GlobalExceptionHandler}
+ * returns on the servlet stack. Ordered first so its catch-all does not win.
+ */
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleWebExchangeBindException(
+            WebExchangeBindException ex) {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+        
+        response.put("message", "Validation failed");
+        response.put("errors", errors);
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+}
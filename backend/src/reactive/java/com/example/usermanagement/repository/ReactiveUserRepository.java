@@ -0,0 +1,14 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserRepository}, used by the reactive build
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String>, ReactiveUserRepositoryCustom {
+    Mono<User> findByUsername(String username);
+}
@@ -0,0 +1,63 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive versions of the {@link UserRepositoryCustom} queries, built from the same
+ * aggregation and criteria so both stacks return identical pages
+ */
+public interface ReactiveUserRepositoryCustom {
+
+    /**
+     * Get one page of users and the total count in a single round trip
+     * @param role Role to filter on, or null for all users
+     * @param projection Fields to read for each user
+     * @param knownTotal Total already counted for this role, or null to count it
+     */
+    Mono<Page<UserSummary>> findPage(String role, Pageable pageable, UserProjection projection, Long knownTotal);
+
+    /**
+     * Full-text search over name, email and username; unsorted pageables order by relevance
+     * @param role Role to filter on, or null for all users
+     */
+    Mono<Page<UserSummary>> searchPage(String text, String role, Pageable pageable, UserProjection projection);
+
+    /**
+     * Get up to limit users after (afterValue, afterId) in the given sort, for keyset pagination
+     * @param afterId Id of the last user of the previous page, or null for the first page
+     * @param projection Fields to read for each user, plus the sort field
+     */
+    Flux<UserSummary> findSlice(String role, UserSortField sortField, Sort.Direction direction,
+                                Object afterValue, String afterId, int limit, UserProjection projection);
+
+    /**
+     * Stream users for an export, without their password hash. Batches are fetched as
+     * the subscriber requests them.
+     * @param role Role to filter on, or null for all users
+     */
+    Flux<User> streamUsers(String role, Sort sort);
+
+    /**
+     * Set the role of every user matching the filter with one updateMany
+     */
+    Mono<UpdateResult> updateRoleMatching(UserFilter filter, String role);
+
+    /**
+     * Delete every user matching the filter with one deleteMany
+     * @return Number of users deleted
+     */
+    Mono<Long> deleteMatching(UserFilter filter);
+
+    /**
+     * Delete a user and return the deleted document
+     * @return The deleted user, or empty if there was none
+     */
+    Mono<User> findAndDeleteById(String id);
+}
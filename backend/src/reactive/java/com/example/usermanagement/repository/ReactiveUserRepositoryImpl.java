@@ -0,0 +1,83 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveMongoTemplate-backed implementation of {@link ReactiveUserRepositoryCustom}, picked
+ * up by Spring Data as a fragment of {@link ReactiveUserRepository}
+ */
+public class ReactiveUserRepositoryImpl implements ReactiveUserRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveUserRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Page<UserSummary>> findPage(String role, Pageable pageable, UserProjection projection, Long knownTotal) {
+        if (knownTotal != null) {
+            return mongoTemplate.find(UserRepositoryImpl.pageQuery(role, pageable, projection), UserSummary.class,
+                            mongoTemplate.getCollectionName(User.class))
+                    .collectList()
+                    .map(users -> new PageImpl<>(users, pageable, knownTotal));
+        }
+        return mongoTemplate
+                .aggregate(UserRepositoryImpl.pageAggregation(role, pageable, projection), UserRepositoryImpl.PageResult.class)
+                .next()
+                .map(result -> UserRepositoryImpl.toPage(result, pageable))
+                .defaultIfEmpty(UserRepositoryImpl.toPage(null, pageable));
+    }
+
+    @Override
+    public Mono<Page<UserSummary>> searchPage(String text, String role, Pageable pageable, UserProjection projection) {
+        return mongoTemplate
+                .aggregate(UserRepositoryImpl.searchAggregation(text, role, pageable, projection), UserRepositoryImpl.PageResult.class)
+                .next()
+                .map(result -> UserRepositoryImpl.toPage(result, pageable))
+                .defaultIfEmpty(UserRepositoryImpl.toPage(null, pageable));
+    }
+
+    @Override
+    public Flux<UserSummary> findSlice(String role, UserSortField sortField, Sort.Direction direction,
+                                       Object afterValue, String afterId, int limit, UserProjection projection) {
+        return mongoTemplate.find(
+                UserRepositoryImpl.sliceQuery(role, sortField, direction, afterValue, afterId, limit, projection),
+                UserSummary.class, mongoTemplate.getCollectionName(User.class));
+    }
+
+    @Override
+    public Flux<User> streamUsers(String role, Sort sort) {
+        return mongoTemplate.find(UserRepositoryImpl.exportQuery(role, sort), User.class);
+    }
+
+    @Override
+    public Mono<UpdateResult> updateRoleMatching(UserFilter filter, String role) {
+        return Mono.fromCallable(() -> UserRepositoryImpl.filterQuery(filter))
+                .flatMap(query -> mongoTemplate.updateMulti(query, UserRepositoryImpl.roleUpdate(role), User.class));
+    }
+
+    @Override
+    public Mono<Long> deleteMatching(UserFilter filter) {
+        return Mono.fromCallable(() -> UserRepositoryImpl.filterQuery(filter))
+                .flatMap(query -> mongoTemplate.remove(query, User.class))
+                .map(DeleteResult::getDeletedCount);
+    }
+
+    @Override
+    public Mono<User> findAndDeleteById(String id) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where(UserSortField.ID.getProperty()).is(id)), User.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.usermanagement.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive counterpart of {@link JwtRequestFilter}: a valid Bearer token puts an
+ * authentication into the subscriber context, anything else passes through
+ * unauthenticated. Registered by {@link ReactiveSecurityConfig}.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationWebFilter.class);
+
+    private final JwtUtil jwtUtil;
+
+    // Same jwt.filter.duration timers as the servlet filter
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
+    // One immutable authority list per role, shared by every authentication for that role
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+
+    public JwtAuthenticationWebFilter(JwtUtil jwtUtil, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String requestTokenHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (requestTokenHeader == null || !requestTokenHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        // Verification is CPU-only (and cached), so it stays on the event loop
+        long startedAt = System.nanoTime();
+        VerifiedToken verified = jwtUtil.verify(requestTokenHeader.substring(7));
+        if (verified == null) {
+            logger.warn("JWT Token validation failed");
+            rejectedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return chain.filter(exchange);
+        }
+        if (verified.getUsername() == null || verified.getRole() == null) {
+            rejectedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return chain.filter(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken authenticationToken =
+            new UsernamePasswordAuthenticationToken(verified.getUsername(), null, authoritiesFor(verified.getRole()));
+        authenticatedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authenticationToken));
+    }
+
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.filter.duration")
+                .description("Time spent verifying the bearer token")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private List<GrantedAuthority> authoritiesFor(String role) {
+        return authoritiesByRole.computeIfAbsent(role,
+            key -> Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + key.toUpperCase())));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.usermanagement.security;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Argon2id/BCrypt hashing for the reactive stack. The work runs on the bounded
+ * {@link PasswordHashingExecutor} pool and completes a Mono, so event-loop threads
+ * never hash or wait for a hash. A saturated pool fails the Mono with
+ * {@link com.example.usermanagement.exception.PasswordHashingUnavailableException}.
+ */
+@Component
+public class ReactivePasswordHasher {
+
+    // The application's encoder, hashing on the calling thread, which here is always a pool thread
+    private final HybridPasswordEncoder encoder;
+    private final PasswordHashingExecutor hashingExecutor;
+
+    // Checked against when the username does not exist, so that answer takes as long as a
+    // wrong password would; hashed once here with the same Argon2id parameters as real users
+    private final String unknownUserPassword;
+
+    public ReactivePasswordHasher(PasswordHashingExecutor hashingExecutor, HybridPasswordEncoder passwordEncoder) {
+        this.hashingExecutor = hashingExecutor;
+        this.encoder = passwordEncoder.onCallingThread();
+        this.unknownUserPassword = encoder.encode("unknown-user-password");
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return Mono.fromFuture(() -> hashingExecutor.submitEncode("Argon2id", () -> encoder.encode(rawPassword)));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return Mono.just(false);
+        }
+        return Mono.fromFuture(() -> hashingExecutor.submitMatches(encoder.getAlgorithm(encodedPassword),
+                () -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Run a full password check for a username that does not exist, like the servlet stack's
+     * DaoAuthenticationProvider does, so response times do not reveal which usernames exist.
+     * Completes with false.
+     */
+    public Mono<Boolean> matchesUnknownUser(CharSequence rawPassword) {
+        return matches(rawPassword, unknownUserPassword).map(matches -> false);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.ReactiveUserRepository;
+import com.example.usermanagement.repository.UserFilter;
+import com.example.usermanagement.repository.UserProjection;
+import com.example.usermanagement.security.ReactivePasswordHasher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link UserService} for the reactive build. Paging, sorting
+ * and cursors use the same helpers, so responses are identical to the MVC stack.
+ */
+@Service
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository repository;
+    private final RecentUsersCache recentUsersCache;
+    private final UserStatsCounter userStatsCounter;
+    private final UserSuggestIndex userSuggestIndex;
+    private final UserCollectionVersion collectionVersion;
+    private final UserPageTotals pageTotals;
+    private final ReactivePasswordHasher passwordHasher;
+
+    public ReactiveUserService(ReactiveUserRepository repository, RecentUsersCache recentUsersCache,
+                               UserStatsCounter userStatsCounter, UserSuggestIndex userSuggestIndex,
+                               UserCollectionVersion collectionVersion, UserPageTotals pageTotals,
+                               ReactivePasswordHasher passwordHasher) {
+        this.repository = repository;
+        this.recentUsersCache = recentUsersCache;
+        this.userStatsCounter = userStatsCounter;
+        this.userSuggestIndex = userSuggestIndex;
+        this.collectionVersion = collectionVersion;
+        this.pageTotals = pageTotals;
+        this.passwordHasher = passwordHasher;
+    }
+
+    public Mono<User> createUser(User user) {
+        // Hash password on the hashing pool before saving
+        return passwordHasher.encode(user.getPassword())
+                .flatMap(encoded -> {
+                    user.setPassword(encoded);
+                    return repository.save(user);
+                })
+                .doOnNext(savedUser -> {
+                    recentUsersCache.onUserCreated(savedUser);
+                    userStatsCounter.onUserCreated(savedUser.getRole());
+                    userSuggestIndex.onUserSaved(null, savedUser);
+                    collectionVersion.bump();
+                });
+    }
+
+    public Mono<User> updateUser(String id, User user) {
+        user.setId(id);
+        // A blank password keeps the current hash, see UserService.updateUser
+        boolean keepPassword = user.getPassword() == null || user.getPassword().trim().isEmpty();
+        return repository.findById(id)
+                .flatMap(existingUser -> {
+                    // Only hash password if it's being changed
+                    Mono<String> password = keepPassword || user.getPassword().equals(existingUser.getPassword())
+                            ? Mono.just(keepPassword ? existingUser.getPassword() : user.getPassword())
+                            : passwordHasher.encode(user.getPassword());
+                    return password.flatMap(encoded -> {
+                        user.setPassword(encoded);
+                        return repository.save(user);
+                    }).doOnNext(savedUser -> {
+                        userStatsCounter.onRoleChanged(existingUser.getRole(), savedUser.getRole());
+                        userSuggestIndex.onUserSaved(existingUser, savedUser);
+                    });
+                })
+                .switchIfEmpty(Mono.defer(() -> keepPassword
+                        ? Mono.error(new IllegalArgumentException("Password is required"))
+                        : passwordHasher.encode(user.getPassword())
+                                .flatMap(encoded -> {
+                                    user.setPassword(encoded);
+                                    return repository.save(user);
+                                })
+                                .doOnNext(savedUser -> {
+                                    userStatsCounter.onUserCreated(savedUser.getRole());
+                                    userSuggestIndex.onUserSaved(null, savedUser);
+                                })))
+                // Name, role or createdAt may have changed, reload recent lists on next read
+                .doOnNext(savedUser -> {
+                    recentUsersCache.clear();
+                    collectionVersion.bump();
+                });
+    }
+
+    public Mono<Void> deleteUser(String id) {
+        return repository.findAndDeleteById(id)
+                .doOnNext(deletedUser -> {
+                    recentUsersCache.onUserDeleted(id);
+                    userStatsCounter.onUserDeleted(deletedUser.getRole());
+                    userSuggestIndex.onUserDeleted(deletedUser);
+                    collectionVersion.bump();
+                })
+                .then();
+    }
+
+    // Bulk role change, see UserService.updateRoleMatching
+    public Mono<Map<String, Object>> updateRoleMatching(UserFilter filter, String role) {
+        return repository.updateRoleMatching(filter, role)
+                .flatMap(result -> afterBulkWrite(result.getModifiedCount()).thenReturn(Map.<String, Object>of(
+                        "matched", result.getMatchedCount(),
+                        "modified", result.getModifiedCount())));
+    }
+
+    // Bulk delete, see UserService.deleteMatching
+    public Mono<Map<String, Object>> deleteMatching(UserFilter filter) {
+        return repository.deleteMatching(filter)
+                .flatMap(deleted -> afterBulkWrite(deleted).thenReturn(Map.<String, Object>of("deleted", deleted)));
+    }
+
+    // The recount is a blocking query, so it runs off the event loop
+    private Mono<Void> afterBulkWrite(long written) {
+        if (written == 0) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> {
+                    userStatsCounter.onBulkWrite();
+                    recentUsersCache.clear();
+                    userSuggestIndex.requestRebuild();
+                    collectionVersion.bump();
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Counters are in memory; only the first read (or a cache miss) touches MongoDB, off the event loop.
+    // Same admin filtering as UserService.getUserStats(boolean)
+    public Mono<Map<String, Object>> getUserStats(boolean includeAdmins) {
+        return Mono.fromCallable(() -> userStatsCounter.getStats(includeAdmins)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return repository.findByUsername(username);
+    }
+
+    public Mono<Void> resetPassword(String currentPassword, String newPassword) {
+        // Same lookup as UserService.resetPassword (by current password, demo only)
+        return repository.findAll()
+                .filter(user -> currentPassword.equals(user.getPassword()))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Current password is incorrect")))
+                .flatMap(currentUser -> {
+                    // Validate new password
+                    if (newPassword == null || newPassword.trim().isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("New password cannot be empty"));
+                    }
+                    if (newPassword.length() < 6) {
+                        return Mono.error(new IllegalArgumentException("New password must be at least 6 characters long"));
+                    }
+                    if (currentPassword.equals(newPassword)) {
+                        return Mono.error(new IllegalArgumentException("New password must be different from current password"));
+                    }
+
+                    // Update password
+                    currentUser.setPassword(newPassword);
+                    return repository.save(currentUser);
+                })
+                .doOnNext(savedUser -> {
+                    recentUsersCache.clear();
+                    collectionVersion.bump();
+                })
+                .then();
+    }
+
+    // Get all users with pagination, optional sorting and an optional fields= projection
+    public Mono<Map<String, Object>> getAllUsersWithPagination(int page, int size, String sortBy, String sortDir, String fields) {
+        return getUsersByRoleWithPagination(null, page, size, sortBy, sortDir, fields);
+    }
+
+    // Get users by role (null for all) with pagination, optional sorting and an optional fields= projection
+    public Mono<Map<String, Object>> getUsersByRoleWithPagination(String role, int page, int size, String sortBy, String sortDir,
+                                                                  String fields) {
+        return Mono.fromCallable(() -> UserService.buildPageRequest(page, size, sortBy, sortDir))
+                .flatMap(pageRequest -> {
+                    // See UserService.getUsersByRoleWithPagination
+                    long version = pageTotals.version();
+                    Long knownTotal = pageTotals.get(role, version);
+                    return repository.findPage(role, pageRequest, UserProjection.fromParameter(fields), knownTotal)
+                            .doOnNext(userPage -> {
+                                if (knownTotal == null) {
+                                    pageTotals.put(role, version, userPage.getTotalElements());
+                                }
+                            });
+                })
+                .map(UserService::toPageResponse);
+    }
+
+    // Text search, see UserService.searchUsers
+    public Mono<Map<String, Object>> searchUsers(String query, String role, int page, int size, String sortBy, String sortDir,
+                                                 String fields) {
+        return Mono.fromCallable(() -> UserService.buildSearchPageRequest(page, size, sortBy, sortDir))
+                .flatMap(pageRequest -> repository.searchPage(UserService.searchText(query), role, pageRequest,
+                        UserProjection.fromParameter(fields)))
+                .map(UserService::toSearchResponse);
+    }
+
+    // Typeahead from the in-memory index, see UserService.suggestUsers; no I/O, so it stays on the caller's thread
+    public Mono<List<UserSummary>> suggestUsers(String prefix, String role, int limit) {
+        return Mono.fromCallable(() -> userSuggestIndex.suggest(UserService.suggestPrefix(prefix), role, limit));
+    }
+
+    // Get users with keyset (cursor) pagination, see UserService.getUsersAfterCursor
+    public Mono<Map<String, Object>> getUsersAfterCursor(String role, String after, int size, String sortBy, String sortDir,
+                                                         String fields) {
+        return Mono.fromCallable(() -> UserProjection.fromParameter(fields))
+                .flatMap(projection -> Mono.fromCallable(() -> UserService.startCursor(after, size, sortBy, sortDir))
+                        .flatMap(cursor -> repository
+                                .findSlice(role, cursor.getSortField(), cursor.getDirection(),
+                                        cursor.getLastValue(), cursor.getLastId(), size + 1, projection)
+                                .collectList()
+                                .map(users -> UserService.toCursorResponse(users, size, cursor, projection))));
+    }
+
+    // Export every matching user, see UserService.exportUsers. Lines are sent in chunks of
+    // EXPORT_FLUSH_ROWS users as the client reads them, so memory stays bounded.
+    public Flux<DataBuffer> exportUsers(String role, String sortBy, String sortDir, UserExportFormat format) {
+        Flux<String> lines = Flux.defer(() -> repository.streamUsers(role, UserService.buildSort(sortBy, sortDir)))
+                .map(format::line)
+                .startWith(format.header());
+        return lines.buffer(UserService.EXPORT_FLUSH_ROWS)
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        String.join("", chunk).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Get recent users (last N users by creation date), null role for all users
+    public Mono<List<UserSummary>> getRecentUsers(String role, int limit, String fields) {
+        return Mono.fromCallable(() -> UserProjection.fromParameter(fields).applyTo(recentUsersCache.getRecentUsers(role, limit)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
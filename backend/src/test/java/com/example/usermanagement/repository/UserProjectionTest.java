@@ -0,0 +1,70 @@
+package com.example.usermanagement.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserProjectionTest {
+
+    @Test
+    void idOnlyStillProjectsTheQuery() {
+        UserProjection projection = UserProjection.fromParameter("id");
+
+        assertThat(projection.getFields()).isEmpty();
+        assertThat(projection.applyTo(new Query()).getFieldsObject()).isEqualTo(new Document("_id", 1));
+    }
+
+    @Test
+    void idOnlyCursorSortedByIdStillProjectsTheQuery() {
+        Query query = UserProjection.fromParameter("id").including(UserSortField.ID).applyTo(new Query());
+
+        assertThat(query.getFieldsObject()).isEqualTo(new Document("_id", 1));
+    }
+
+    @Test
+    void idOnlyStageIsNotAnEmptyProject() {
+        Document stage = render(UserProjection.fromParameter("id"));
+
+        assertThat(stage).isEqualTo(new Document("$project", new Document("_id", 1)));
+    }
+
+    @Test
+    void requestedFieldsAreProjectedWithId() {
+        UserProjection projection = UserProjection.fromParameter("name, EMAIL");
+
+        assertThat(projection.applyTo(new Query()).getFieldsObject())
+                .isEqualTo(new Document("_id", 1).append("name", 1).append("email", 1));
+        assertThat(render(projection).get("$project", Document.class))
+                .containsOnlyKeys("_id", "name", "email");
+    }
+
+    @Test
+    void cursorAddsTheSortField() {
+        Query query = UserProjection.fromParameter("name").including(UserSortField.fromParameter("createdAt")).applyTo(new Query());
+
+        assertThat(query.getFieldsObject()).containsOnlyKeys("_id", "name", "createdAt");
+    }
+
+    @Test
+    void summaryNeverReadsThePassword() {
+        assertThat(UserProjection.fromParameter(null)).isSameAs(UserProjection.SUMMARY);
+        assertThat(UserProjection.SUMMARY.applyTo(new Query()).getFieldsObject()).doesNotContainKey("password");
+    }
+
+    @Test
+    void passwordAndUnknownFieldsAreRejected() {
+        assertThatThrownBy(() -> UserProjection.fromParameter("name,password"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UserProjection.fromParameter("nickname"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Document render(UserProjection projection) {
+        return ((ProjectionOperation) projection.stage()).toDocument(Aggregation.DEFAULT_CONTEXT);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.usermanagement.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRepositoryImplTest {
+
+    @Test
+    void searchLimitsMatchesBeforeCounting() {
+        List<Document> pipeline = UserRepositoryImpl
+                .searchAggregation("com", null, PageRequest.of(0, 20), UserProjection.SUMMARY)
+                .toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        assertThat(pipeline).extracting(stage -> stage.keySet().iterator().next())
+                .containsExactly("$match", "$sort", "$limit", "$facet");
+        assertThat(pipeline.get(2).get("$limit")).isEqualTo((long) UserRepositoryImpl.MAX_SEARCH_MATCHES);
+    }
+
+    @Test
+    void sortedSearchIsLimitedToo() {
+        List<Document> pipeline = UserRepositoryImpl
+                .searchAggregation("john", "user", PageRequest.of(2, 20, Sort.by("name")), UserProjection.SUMMARY)
+                .toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        assertThat(pipeline.get(0).get("$match", Document.class)).containsKeys("$text", "role");
+        assertThat(pipeline.get(1).get("$sort", Document.class)).containsKey("name");
+        assertThat(pipeline.get(2)).containsKey("$limit");
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    // 20 per IP, 5 per username from one IP, 12 per username in total; nothing refills during a test
+    private final LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(), true, 20, 1, 5, 1, 12, 1, 1000);
+
+    @Test
+    void failuresFromOneAddressDoNotLockOutOthers() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("10.0.0.1", "admin");
+        }
+        assertThatThrownBy(() -> throttle.acquire("10.0.0.1", "ADMIN"))
+                .isInstanceOf(LoginThrottledException.class)
+                .hasMessageContaining("user");
+
+        assertThatCode(() -> throttle.acquire("10.0.0.2", "admin")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failuresFromManyAddressesHitTheTotalCap() {
+        for (int i = 0; i < 12; i++) {
+            throttle.acquire("10.0.0." + i, "admin");
+        }
+        assertThatThrownBy(() -> throttle.acquire("10.0.1.1", "admin"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> throttle.acquire("10.0.1.1", "alice")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successfulLoginsDoNotUseUpTheUsername() {
+        for (int i = 0; i < 15; i++) {
+            throttle.acquire("10.0.0.1", "alice");
+            throttle.onSuccess("10.0.0.1", "alice");
+        }
+        assertThatCode(() -> throttle.acquire("10.0.0.1", "alice")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successesStillCountAgainstTheAddress() {
+        for (int i = 0; i < 20; i++) {
+            throttle.acquire("10.0.0.1", "alice");
+            throttle.onSuccess("10.0.0.1", "alice");
+        }
+        assertThatThrownBy(() -> throttle.acquire("10.0.0.1", "alice"))
+                .isInstanceOf(LoginThrottledException.class)
+                .hasMessageContaining("address");
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.usermanagement.security;
+
+import com.example.usermanagement.model.RevokedToken;
+import com.example.usermanagement.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenRevocationListTest {
+
+    private static final long HOUR = 3_600_000;
+
+    // The revoked_tokens collection, shared by every list built from it like instances sharing MongoDB
+    private final List<RevokedToken> stored = new CopyOnWriteArrayList<>();
+
+    @Test
+    void revokedTokenIsDenied() {
+        TokenRevocationList revocations = revocationList(86_400, 3_600);
+        long expiresAt = System.currentTimeMillis() + 2 * HOUR;
+        VerifiedToken token = token("alice", expiresAt, 0);
+
+        assertThat(revocations.isRevoked(token)).isFalse();
+        revocations.revoke(token);
+
+        assertThat(revocations.isRevoked(token)).isTrue();
+        assertThat(revocations.isRevoked(token("alice", expiresAt, 0))).as("another token of the same user").isFalse();
+        assertThat(stored).extracting(RevokedToken::getId).containsExactly(token.getTokenId());
+        assertThat(revocations.size()).isEqualTo(1);
+    }
+
+    @Test
+    void lookupOnlyUsesTheSlotOfTheTokensExp() {
+        TokenRevocationList revocations = revocationList(86_400, 3_600);
+        long now = System.currentTimeMillis();
+        VerifiedToken token = token("alice", now + 2 * HOUR, 0);
+        revocations.revoke(token);
+
+        // Same id with an exp in another slot: only that slot is consulted
+        VerifiedToken otherSlot = new VerifiedToken("alice", "user", now + 5 * HOUR, token.getTokenId(), 0);
+        assertThat(revocations.isRevoked(otherSlot)).isFalse();
+    }
+
+    @Test
+    void bloomFilterHitsAreConfirmedAgainstTheExactIds() {
+        TokenRevocationList revocations = revocationList(86_400, 3_600);
+        // Every token in the middle of one slot, far past its capacity, so the Bloom filter is saturated
+        long expiresAt = (System.currentTimeMillis() / HOUR + 3) * HOUR + HOUR / 2;
+        for (int i = 0; i < 20_000; i++) {
+            revocations.revoke(token("user" + i, expiresAt, 0));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(revocations.isRevoked(token("user" + i, expiresAt, 0))).isFalse();
+        }
+        assertThat(revocations.size()).isEqualTo(20_000);
+    }
+
+    @Test
+    void tokensExpiringPastTheWheelAreStillRevoked() {
+        TokenRevocationList revocations = revocationList(86_400, 3_600);
+        // Issued with a longer jwt.expiration than this instance uses
+        VerifiedToken token = token("alice", System.currentTimeMillis() + 30 * 24 * HOUR, 0);
+        revocations.revoke(token);
+
+        assertThat(revocations.isRevoked(token)).isTrue();
+    }
+
+    @Test
+    void tokenWithoutIdCannotBeRevokedOnItsOwn() {
+        TokenRevocationList revocations = revocationList(86_400, 3_600);
+        VerifiedToken legacy = new VerifiedToken("alice", "user", System.currentTimeMillis() + HOUR, null, 0);
+
+        assertThatThrownBy(() -> revocations.revoke(legacy)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(revocations.isRevoked(legacy)).isFalse();
+    }
+
+    @Test
+    void userCutoffDeniesTokensIssuedUpToIt() {
+        TokenRevocationList revocations = revocationList(86_400, 3_600);
+        long now = System.currentTimeMillis();
+        long expiresAt = now + 2 * HOUR;
+        VerifiedToken earlier = token("alice", expiresAt, now - 60_000);
+        VerifiedToken legacy = new VerifiedToken("alice", "user", expiresAt, null, now - 60_000);
+
+        revocations.revokeUser("alice");
+
+        assertThat(revocations.isRevoked(earlier)).isTrue();
+        assertThat(revocations.isRevoked(legacy)).as("token without jti").isTrue();
+        // iat is in whole seconds, so a token issued in the second of the revocation is denied too
+        assertThat(revocations.isRevoked(token("alice", expiresAt, now / 1000 * 1000))).isTrue();
+        assertThat(revocations.isRevoked(token("alice", expiresAt, now + 60_000))).as("issued after").isFalse();
+        assertThat(revocations.isRevoked(token("bob", expiresAt, now - 60_000))).as("another user").isFalse();
+    }
+
+    @Test
+    void revocationsFromOtherInstancesArriveOnLoadAndSync() {
+        TokenRevocationList first = revocationList(86_400, 3_600);
+        long now = System.currentTimeMillis();
+        VerifiedToken before = token("alice", now + 2 * HOUR, 0);
+        first.revoke(before);
+
+        TokenRevocationList second = revocationList(86_400, 3_600);
+        assertThat(second.isRevoked(before)).as("loaded at startup").isTrue();
+
+        VerifiedToken after = token("bob", now + 3 * HOUR, 0);
+        first.revoke(after);
+        first.revokeUser("carol");
+        assertThat(second.isRevoked(after)).isFalse();
+
+        second.sync();
+        assertThat(second.isRevoked(after)).isTrue();
+        assertThat(second.isRevoked(token("carol", now + HOUR, now - 60_000))).isTrue();
+    }
+
+    @Test
+    void expiredSlotsAndCutoffsAreDropped() throws InterruptedException {
+        // One-second slots and two-second tokens, so everything expires within a few seconds
+        TokenRevocationList revocations = revocationList(2, 1);
+        long now = System.currentTimeMillis();
+        VerifiedToken token = token("alice", now + 500, 0);
+        revocations.revoke(token);
+        revocations.revokeUser("bob");
+        assertThat(revocations.size()).isEqualTo(2);
+
+        revocations.sync();
+        assertThat(revocations.size()).as("nothing has expired yet").isEqualTo(2);
+
+        // Past the end of the token's slot and the two seconds a token of bob's can live
+        Thread.sleep(Math.max(now + 2_000, (token.getExpiresAtMillis() / 1000 + 1) * 1000) - now + 100);
+        revocations.sync();
+
+        assertThat(revocations.size()).isZero();
+        assertThat(revocations.isRevoked(token)).isFalse();
+    }
+
+    private TokenRevocationList revocationList(long expirationSeconds, long slotSeconds) {
+        TokenRevocationList revocations = new TokenRevocationList(repository(), new SimpleMeterRegistry(),
+                expirationSeconds, slotSeconds, 1_000, 1_000);
+        revocations.load();
+        return revocations;
+    }
+
+    private static VerifiedToken token(String username, long expiresAtMillis, long issuedAtMillis) {
+        return new VerifiedToken(username, "user", expiresAtMillis, UUID.randomUUID().toString(), issuedAtMillis);
+    }
+
+    private RevokedTokenRepository repository() {
+        return (RevokedTokenRepository) Proxy.newProxyInstance(RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        stored.add((RevokedToken) args[0]);
+                        yield args[0];
+                    }
+                    case "findByExpiresAtAfter" -> stored.stream()
+                            .filter(revoked -> revoked.getExpiresAt().isAfter((Instant) args[0]))
+                            .toList();
+                    case "findByRevokedAtAfter" -> stored.stream()
+                            .filter(revoked -> revoked.getRevokedAt().isAfter((Instant) args[0]))
+                            .toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
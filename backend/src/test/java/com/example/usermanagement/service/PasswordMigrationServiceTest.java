@@ -0,0 +1,83 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordMigrationServiceTest {
+
+    private final AtomicInteger aggregations = new AtomicInteger();
+
+    private final PasswordMigrationService service = new PasswordMigrationService(10, new MockEnvironment());
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void concurrentCallersShareOneReload() throws Exception {
+        ReflectionTestUtils.setField(service, "userRepository", repository(200));
+        ReflectionTestUtils.setField(service, "statisticsCacheTtlMillis", 60_000L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<PasswordMigrationService.PasswordStatistics>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.getPasswordStatistics();
+                }));
+            }
+            start.countDown();
+            for (Future<PasswordMigrationService.PasswordStatistics> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).totalCount).isEqualTo(5);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(aggregations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredStatisticsAreCountedAgain() {
+        ReflectionTestUtils.setField(service, "userRepository", repository(0));
+        ReflectionTestUtils.setField(service, "statisticsCacheTtlMillis", 0L);
+
+        service.getPasswordStatistics();
+        service.getPasswordStatistics();
+
+        assertThat(aggregations.get()).isEqualTo(2);
+    }
+
+    // countPasswordsByAlgorithm takes the given time, so concurrent callers overlap with it
+    private UserRepository repository(long aggregationMillis) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "countPasswordsByAlgorithm" -> {
+                        aggregations.incrementAndGet();
+                        Thread.sleep(aggregationMillis);
+                        yield Map.of("Argon2id", 3L, "BCrypt", 2L);
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.UserRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentUsersCacheTest {
+
+    // The users collection
+    private final List<User> stored = new CopyOnWriteArrayList<>();
+
+    private final RecentUsersCache cache = new RecentUsersCache(repository());
+
+    @Test
+    void userReadBetweenSaveAndCreateIsListedOnce() {
+        save(user("user"));
+
+        // UserService.createUser saves first, so a read before onUserCreated already loads the new user
+        User created = save(user("user"));
+        assertThat(cache.getRecentUsers(null, 10)).extracting(UserSummary::getId).contains(created.getId());
+        assertThat(cache.getRecentUsers("user", 10)).extracting(UserSummary::getId).contains(created.getId());
+        cache.onUserCreated(created);
+
+        assertThat(cache.getRecentUsers(null, 10)).extracting(UserSummary::getId)
+                .containsOnlyOnce(created.getId())
+                .doesNotHaveDuplicates();
+        assertThat(cache.getRecentUsers("user", 10)).extracting(UserSummary::getId)
+                .containsOnlyOnce(created.getId())
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void createdUserIsListedFirst() {
+        for (int i = 0; i < 3; i++) {
+            save(user("user"));
+        }
+        cache.getRecentUsers(null, 10);
+
+        User created = user("admin");
+        stored.add(created);
+        cache.onUserCreated(created);
+
+        assertThat(cache.getRecentUsers(null, 10)).hasSize(4).first()
+                .extracting(UserSummary::getId).isEqualTo(created.getId());
+    }
+
+    @Test
+    void concurrentCreatesAndReadsNeverListAUserTwice() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> writer = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    User created = save(user(i % 2 == 0 ? "user" : "admin"));
+                    cache.onUserCreated(created);
+                    if (i % 50 == 0) {
+                        cache.clear();
+                    }
+                }
+                return null;
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                String role = r == 0 ? null : r == 1 ? "user" : "admin";
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (!writer.isDone()) {
+                        assertThat(cache.getRecentUsers(role, RecentUsersCache.CAPACITY))
+                                .extracting(UserSummary::getId).doesNotHaveDuplicates();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.getRecentUsers(null, RecentUsersCache.CAPACITY)).extracting(UserSummary::getId)
+                .doesNotHaveDuplicates()
+                .hasSize(RecentUsersCache.CAPACITY);
+    }
+
+    private User save(User user) {
+        stored.add(user);
+        return user;
+    }
+
+    private static User user(String role) {
+        User user = new User("Name", "mail@example.com", "name", "hash", role);
+        user.setId(new ObjectId().toHexString());
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+
+    private List<UserSummary> newest(String role, Pageable pageable) {
+        return stored.stream()
+                .filter(user -> role == null || role.equals(user.getRole()))
+                .sorted(Comparator.comparing(User::getCreatedAt).thenComparing(User::getId).reversed())
+                .limit(pageable.getPageSize())
+                .map(UserSummary::of)
+                .toList();
+    }
+
+    private UserRepository repository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByOrderByCreatedAtDesc" -> newest(null, (Pageable) args[0]);
+                    case "findByRoleOrderByCreatedAtDesc" -> newest((String) args[0], (Pageable) args[1]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
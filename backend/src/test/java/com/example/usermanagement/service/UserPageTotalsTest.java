@@ -0,0 +1,45 @@
+package com.example.usermanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPageTotalsTest {
+
+    private final UserCollectionVersion collectionVersion = new UserCollectionVersion();
+    private final UserPageTotals totals = new UserPageTotals(collectionVersion);
+
+    @Test
+    void totalIsReusedUntilTheVersionMoves() {
+        long version = totals.version();
+        assertThat(totals.get("user", version)).isNull();
+
+        totals.put("user", version, 42);
+        assertThat(totals.get("user", version)).isEqualTo(42);
+        assertThat(totals.get(null, version)).as("all users are counted separately").isNull();
+
+        collectionVersion.bump();
+        assertThat(totals.get("user", totals.version())).isNull();
+    }
+
+    @Test
+    void countRacingWithAWriteIsNeverServed() {
+        // Version read before the count; a write bumps it while the count runs
+        long version = totals.version();
+        collectionVersion.bump();
+        totals.put(null, version, 7);
+
+        assertThat(totals.get(null, totals.version())).isNull();
+    }
+
+    @Test
+    void onlyABoundedNumberOfRoleFiltersIsKept() {
+        long version = totals.version();
+        for (int i = 0; i < 1000; i++) {
+            totals.put("role" + i, version, i);
+        }
+
+        assertThat(totals.get("role0", version)).isZero();
+        assertThat(totals.get("role999", version)).isNull();
+    }
+}
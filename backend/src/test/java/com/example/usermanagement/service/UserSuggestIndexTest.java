@@ -0,0 +1,273 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserSummary;
+import com.example.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Random writes, merges, compactions and rebuilds, checked after every step against a
+ * brute-force scan of the same users
+ */
+class UserSuggestIndexTest {
+
+    private static final String[] ROLES = {"admin", "user", "auditor"};
+    // Few letters, so prefixes are shared; upper case and non-ASCII exercise the lowercase keys and byte order
+    private static final String[] LETTERS = {"a", "b", "c", "A", "B", ".", "é", "z"};
+    private static final int MERGE_THRESHOLD = 16;
+
+    // Users as MongoDB would hold them, by id
+    private final Map<String, User> users = new LinkedHashMap<>();
+
+    // What the next rebuild reads from the repository
+    private Supplier<Stream<User>> stored = () -> snapshot().stream();
+
+    private final UserSuggestIndex index = new UserSuggestIndex(repository(), new SimpleMeterRegistry(), MERGE_THRESHOLD);
+
+    private final Random random = new Random(20_261_017L);
+
+    @AfterEach
+    void shutdown() {
+        index.shutdown();
+    }
+
+    @Test
+    void matchesBruteForceThroughWritesMergesAndCompactions() {
+        for (int step = 0; step < 10_000; step++) {
+            int operation = random.nextInt(100);
+            if (operation < 40 || users.isEmpty()) {
+                create();
+            } else if (operation < 65) {
+                update();
+            } else if (operation < 90) {
+                delete();
+            } else if (operation < 91) {
+                index.rebuild();
+            } else {
+                assertSuggestionsMatch(randomPrefix(), randomRole(), 1 + random.nextInt(UserSuggestIndex.MAX_LIMIT + 5));
+            }
+            if (step % 200 == 0) {
+                assertSameAsModel();
+            }
+        }
+        assertSameAsModel();
+    }
+
+    @Test
+    void writesDuringRebuildAreReplayed() {
+        for (int i = 0; i < 200; i++) {
+            create();
+        }
+        index.rebuild();
+
+        for (int round = 0; round < 50; round++) {
+            // The rebuild reads a snapshot; writes land while it streams, some of them already in the snapshot
+            boolean writesInSnapshot = round % 2 == 0;
+            List<User> before = snapshot();
+            stored = () -> {
+                Runnable writes = () -> {
+                    for (int i = 0; i < 10; i++) {
+                        int operation = random.nextInt(3);
+                        if (operation == 0 || users.isEmpty()) {
+                            create();
+                        } else if (operation == 1) {
+                            update();
+                        } else {
+                            delete();
+                        }
+                    }
+                };
+                if (writesInSnapshot) {
+                    writes.run();
+                    return snapshot().stream();
+                }
+                return before.stream().peek(onFirst(writes));
+            };
+            index.rebuild();
+            assertSameAsModel();
+        }
+    }
+
+    @Test
+    void requestedRebuildPicksUpUsersWrittenBehindTheIndex() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            create();
+        }
+        index.rebuild();
+
+        // A bulk write changes MongoDB without telling the index which users it touched
+        users.values().forEach(user -> user.setRole("auditor"));
+        index.requestRebuild();
+        index.requestRebuild();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (index.suggest("", "auditor", UserSuggestIndex.MAX_LIMIT).size() < UserSuggestIndex.MAX_LIMIT
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertSameAsModel();
+    }
+
+    @Test
+    void limitIsCapped() {
+        for (int i = 0; i < 100; i++) {
+            create();
+        }
+        assertThat(index.suggest("", null, 1000)).hasSize(UserSuggestIndex.MAX_LIMIT);
+    }
+
+    private void assertSameAsModel() {
+        assertThat(index.size()).isEqualTo(users.size());
+        for (String prefix : new String[]{"", "a", "A", "b", "ab", "é", "éa", ".", "z", "a.", "q"}) {
+            assertSuggestionsMatch(prefix, null, UserSuggestIndex.MAX_LIMIT);
+            for (String role : ROLES) {
+                assertSuggestionsMatch(prefix, role, UserSuggestIndex.MAX_LIMIT);
+            }
+        }
+    }
+
+    // Users with equal first keys may come back in any order, so positions are compared by key
+    private void assertSuggestionsMatch(String prefix, String role, int limit) {
+        byte[] key = utf8(prefix.toLowerCase(Locale.ROOT));
+        List<byte[]> expected = users.values().stream()
+                .filter(user -> role == null || role.equals(user.getRole()))
+                .map(user -> firstMatchingKey(user, key))
+                .filter(first -> first != null)
+                .sorted(Arrays::compareUnsigned)
+                .limit(Math.min(limit, UserSuggestIndex.MAX_LIMIT))
+                .toList();
+
+        List<UserSummary> actual = index.suggest(prefix, role, limit);
+
+        assertThat(actual).hasSameSizeAs(expected);
+        assertThat(actual).extracting(UserSummary::getId).doesNotHaveDuplicates();
+        for (int i = 0; i < actual.size(); i++) {
+            UserSummary suggested = actual.get(i);
+            User user = users.get(suggested.getId());
+            assertThat(user).as("suggested user %s is live", suggested.getId()).isNotNull();
+            assertThat(suggested.getUsername()).isEqualTo(user.getUsername());
+            assertThat(suggested.getEmail()).isEqualTo(user.getEmail());
+            assertThat(suggested.getName()).isEqualTo(user.getName());
+            assertThat(suggested.getRole()).isEqualTo(user.getRole());
+            assertThat(firstMatchingKey(user, key)).isEqualTo(expected.get(i));
+        }
+    }
+
+    private static byte[] firstMatchingKey(User user, byte[] prefix) {
+        return Stream.of(user.getUsername(), user.getEmail(), user.getName())
+                .filter(value -> value != null)
+                .map(value -> utf8(value.toLowerCase(Locale.ROOT)))
+                .filter(value -> value.length >= prefix.length
+                        && Arrays.equals(value, 0, prefix.length, prefix, 0, prefix.length))
+                .min(Arrays::compareUnsigned)
+                .orElse(null);
+    }
+
+    private void create() {
+        User user = new User(randomText(true), randomText(false) + "@" + randomText(false), randomText(false), "hash", randomRole());
+        // A few ids that are not ObjectIds, as imported data may have
+        user.setId(random.nextInt(20) == 0 ? "legacy-" + users.size() + "-" + random.nextInt(1_000_000) : new ObjectId().toHexString());
+        users.put(user.getId(), user);
+        index.onUserSaved(null, copy(user));
+    }
+
+    private void update() {
+        User previous = randomUser();
+        User saved = copy(previous);
+        switch (random.nextInt(4)) {
+            case 0 -> saved.setUsername(randomText(false));
+            case 1 -> saved.setEmail(randomText(false) + "@" + randomText(false));
+            case 2 -> saved.setName(randomText(true));
+            default -> saved.setRole(ROLES[random.nextInt(ROLES.length)]);
+        }
+        users.put(saved.getId(), saved);
+        index.onUserSaved(copy(previous), copy(saved));
+    }
+
+    private void delete() {
+        User deleted = randomUser();
+        users.remove(deleted.getId());
+        index.onUserDeleted(copy(deleted));
+    }
+
+    private User randomUser() {
+        List<User> all = new ArrayList<>(users.values());
+        return all.get(random.nextInt(all.size()));
+    }
+
+    private String randomRole() {
+        return ROLES[random.nextInt(ROLES.length)];
+    }
+
+    private String randomPrefix() {
+        return random.nextInt(10) == 0 ? "" : randomText(false).substring(0, 1 + random.nextInt(2));
+    }
+
+    // Name-like text may be missing, as optional fields are
+    private String randomText(boolean nullable) {
+        if (nullable && random.nextInt(30) == 0) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        int length = 2 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            text.append(LETTERS[random.nextInt(LETTERS.length)]);
+        }
+        return text.toString();
+    }
+
+    private List<User> snapshot() {
+        return users.values().stream().map(UserSuggestIndexTest::copy).sorted(Comparator.comparing(User::getId)).toList();
+    }
+
+    private static <T> Consumer<T> onFirst(Runnable action) {
+        boolean[] done = {false};
+        return value -> {
+            if (!done[0]) {
+                done[0] = true;
+                action.run();
+            }
+        };
+    }
+
+    private static User copy(User user) {
+        User copy = new User(user.getName(), user.getEmail(), user.getUsername(), user.getPassword(), user.getRole());
+        copy.setId(user.getId());
+        return copy;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private UserRepository repository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("streamUsers")) {
+                        return stored.get();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -36,7 +36,7 @@ function App() {
   };
 
   const handleLogout = () => {
-    authService.logout();
+    authService.revokeAndLogout();
     setIsAuthenticated(false);
     setCurrentUser(null);
     setActiveSection('dashboard');
@@ -37,8 +37,8 @@ export default function Dashboard({ isCollapsed = false, onNavigateToAddUser, on
       setLoading(true);
       setConnectionError(false);
       
-      // Get stats from first page to get total count
-      const statsResponse = await userService.getAllUsers(undefined, 1, 1);
+      // Get total count from the stats endpoint
+      const statsResponse = await userService.getUserStats();
       
       // Get only the last 5 regular users for display (exclude admin users)
       const recentUsersData = await userService.getRecentUsers("user");
@@ -29,7 +29,8 @@ export default function UserForm({ user, onSubmit, onCancel, isEditing = false }
         name: user.name,
         email: user.email,
         username: user.username,
-        password: user.password || '',
+        // The API never returns the hash; a blank password on edit keeps the current one
+        password: '',
         role: (user.role as 'admin' | 'user') || 'user',
       });
     }
@@ -142,8 +143,8 @@ export default function UserForm({ user, onSubmit, onCancel, isEditing = false }
             value={formData.password}
             onChange={handleChange}
             className="w-full pl-12 pr-4 py-3 bg-white/90 border border-slate-200 rounded-xl focus:ring-2 focus:ring-purple-500 focus:border-transparent transition-all duration-200 placeholder-slate-400"
-            placeholder="Enter password"
-            required
+            placeholder={isEditing ? 'Leave blank to keep the current password' : 'Enter password'}
+            required={!isEditing}
           />
         </div>
       </div>
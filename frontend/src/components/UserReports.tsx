@@ -23,6 +23,10 @@ export default function UserReports({ isCollapsed = false, currentUser }: UserRe
   const [sortBy, setSortBy] = useState<string>('');
   const [sortDir, setSortDir] = useState<'asc' | 'desc'>('asc');
   
+  // Search state: what is typed, and the query the current results were fetched with
+  const [searchInput, setSearchInput] = useState('');
+  const [searchQuery, setSearchQuery] = useState('');
+  
   const [sortConfig, setSortConfig] = useState<{
     key: keyof User;
     direction: 'ascending' | 'descending';
@@ -42,20 +46,29 @@ export default function UserReports({ isCollapsed = false, currentUser }: UserRe
   };
 
   // Fetch users with pagination and sorting for reporting - with comprehensive protection
-  const fetchUsers = async (page: number = currentPage, sort?: string, direction?: string) => {
+  const fetchUsers = async (page: number = currentPage, sort?: string, direction?: string, query: string = searchQuery) => {
     // Prevent multiple simultaneous calls
     if (loading) return;
     
     try {
       setLoading(true);
       setError(null);
-      const response = await userService.getAllUsers(
-        currentUser?.role, 
-        page, 
-        pageSize, 
-        sort || sortBy, 
-        direction || sortDir
-      );
+      const response = query
+        ? await userService.searchUsers(
+            query,
+            currentUser?.role,
+            page,
+            pageSize,
+            sort || sortBy,
+            direction || sortDir
+          )
+        : await userService.getAllUsers(
+            currentUser?.role, 
+            page, 
+            pageSize, 
+            sort || sortBy, 
+            direction || sortDir
+          );
       setUsers(response.users);
       setCurrentPage(response.currentPage);
       setTotalPages(response.totalPages);
@@ -103,6 +116,15 @@ export default function UserReports({ isCollapsed = false, currentUser }: UserRe
     fetchUsers(currentPage, sortBy, sortDir);
   };
 
+  // Run a server-side search; an empty query goes back to the full list
+  const handleSearch = (e: React.FormEvent) => {
+    e.preventDefault();
+    const query = searchInput.trim();
+    setSearchQuery(query);
+    setCurrentPage(1);
+    fetchUsers(1, sortBy, sortDir, query);
+  };
+
   // Sort functionality with server-side sorting
   const handleSort = (key: keyof User) => {
     let direction: 'ascending' | 'descending' = 'ascending';
@@ -231,21 +253,20 @@ export default function UserReports({ isCollapsed = false, currentUser }: UserRe
       {/* Controls */}
       <div className="bg-white/90 backdrop-blur-md rounded-2xl p-6 border border-white/40 shadow-xl">
         <div className="flex flex-col md:flex-row gap-4 items-start md:items-center justify-between">
-          <div className="flex-1 max-w-md">
+          <form onSubmit={handleSearch} className="flex-1 max-w-md">
             <div className="relative">
               <svg className="absolute left-3 top-1/2 transform -translate-y-1/2 text-gray-400 w-5 h-5" fill="none" stroke="currentColor" viewBox="0 0 24 24">
                 <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M21 21l-6-6m2-5a7 7 0 11-14 0 7 7 0 0114 0z" />
               </svg>
               <input
-                type="text"
-                placeholder="Search functionality coming soon..."
-                value=""
-                onChange={() => {}}
-                disabled
-                className="w-full pl-10 pr-4 py-3 border border-gray-200 rounded-lg bg-gray-50 text-gray-500 cursor-not-allowed"
+                type="search"
+                placeholder="Search by name, email or username and press Enter"
+                value={searchInput}
+                onChange={(e) => setSearchInput(e.target.value)}
+                className="w-full pl-10 pr-4 py-3 border border-gray-200 rounded-lg bg-white text-gray-700 focus:outline-none focus:ring-2 focus:ring-blue-500"
               />
             </div>
-          </div>
+          </form>
           <div className="flex items-center space-x-3">
             <button
               onClick={handleRefresh}
@@ -128,6 +128,23 @@ export const authService = {
     return localStorage.getItem('jwt_token');
   },
 
+  // Clear the token locally, then revoke it on the server so a copy of it stops working too.
+  // Plain axios: a 401 here (token already expired) must not trigger the redirect interceptor.
+  revokeAndLogout: async (): Promise<void> => {
+    const token = localStorage.getItem('jwt_token');
+    authService.logout();
+    if (token) {
+      try {
+        await axios.post(`${API_BASE_URL}/logout`, null, {
+          headers: { Authorization: `Bearer ${token}` },
+          timeout: 5000,
+        });
+      } catch (error) {
+        // Already logged out locally; the token still expires on its own
+      }
+    }
+  },
+
   // Logout user
   logout: (): void => {
     localStorage.removeItem('user');
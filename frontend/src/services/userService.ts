@@ -46,6 +46,14 @@ export interface PaginatedResponse {
   totalPages: number;
   totalUsers: number;
   pageSize: number;
+  // Search only: totalUsers stopped at the 1000-match cap
+  totalCapped?: boolean;
+}
+
+// User count statistics response type
+export interface UserStats {
+  totalUsers: number;
+  roleCounts: Record<string, number>;
 }
 
 // Enhanced error handling
@@ -107,6 +115,50 @@ export const userService = {
     }
   },
 
+  // Search users by name, email or username (best match first unless sortBy is given)
+  searchUsers: async (
+    query: string,
+    userRole?: string,
+    page: number = 1,
+    size: number = 4,
+    sortBy?: string,
+    sortDir?: string
+  ): Promise<PaginatedResponse> => {
+    try {
+      const params = new URLSearchParams();
+      params.append('q', query);
+      if (userRole) params.append('userRole', userRole);
+      params.append('page', page.toString());
+      params.append('size', size.toString());
+      if (sortBy) params.append('sortBy', sortBy);
+      if (sortDir) params.append('sortDir', sortDir);
+      
+      const url = `${API_BASE_URL}/search?${params.toString()}`;
+      const response = await apiClient.get<PaginatedResponse>(url);
+      return response.data;
+    } catch (error) {
+      const { isConnectionError } = handleApiError(error);
+      if (isConnectionError) {
+        throw new Error('CONNECTION_FAILED');
+      }
+      throw error;
+    }
+  },
+
+  // Get total and per-role user counts
+  getUserStats: async (): Promise<UserStats> => {
+    try {
+      const response = await apiClient.get<UserStats>(`${API_BASE_URL}/stats`);
+      return response.data;
+    } catch (error) {
+      const { isConnectionError } = handleApiError(error);
+      if (isConnectionError) {
+        throw new Error('CONNECTION_FAILED');
+      }
+      throw error;
+    }
+  },
+
   // Get recent users for dashboard (last 5 users)
   getRecentUsers: async (userRole?: string): Promise<User[]> => {
     try {
@@ -3,7 +3,7 @@ export interface User {
   name: string;
   email: string;
   username: string;
-  password?: string; // Optional for display purposes
+  password?: string; // Sent on create/update only, never returned by the API
   role?: 'admin' | 'user'; // Add role field
   createdAt?: string;
   updatedAt?: string;